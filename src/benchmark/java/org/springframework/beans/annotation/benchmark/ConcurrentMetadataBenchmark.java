@@ -0,0 +1,109 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.annotation.ExtendAutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+/**
+ * Measures the metadata construction of a cold post-processor shared by several startup threads,
+ * each thread reflecting over its own set of classes with large hierarchies.
+ * @author devacfr<christophefriederich@mac.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConcurrentMetadataBenchmark {
+
+    /**
+     * classes with large hierarchies and many members.
+     */
+    private static final Class<?>[] CLASSES = {javax.swing.JTable.class, javax.swing.JTree.class,
+            javax.swing.JList.class, javax.swing.JComboBox.class, javax.swing.JTextArea.class,
+            javax.swing.JEditorPane.class, javax.swing.JFileChooser.class, javax.swing.JInternalFrame.class,
+            javax.swing.JSpinner.class, javax.swing.JSlider.class, javax.swing.JToolBar.class,
+            javax.swing.JTabbedPane.class, javax.swing.JSplitPane.class, javax.swing.JScrollPane.class,
+            javax.swing.JProgressBar.class, javax.swing.JPasswordField.class };
+
+    @Param({"1", "4", "8" })
+    private int threads;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void startThreads() {
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void stopThreads() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int buildMetadata() throws Exception {
+        final ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>(threads);
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            results.add(executor.submit(new Callable<Integer>() {
+
+                @Override
+                public Integer call() {
+                    int count = 0;
+                    for (int i = 0; i < CLASSES.length; i++) {
+                        Class<?> clazz = CLASSES[(i + offset) % CLASSES.length];
+                        processor.postProcessMergedBeanDefinition(new RootBeanDefinition(clazz), clazz, clazz.getName());
+                        if (processor.determineCandidateConstructors(clazz, clazz.getName()) == null) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }
+            }));
+        }
+        int count = 0;
+        for (Future<Integer> result : results) {
+            count += result.get();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.Configuration;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Measures the refresh time of synthetic contexts injecting {@link org.springframework.beans.annotation.ImplementedBy}
+ * interfaces, against the stock annotation configuration declaring the same defaults explicitly.
+ * <p>Allocation rate and GC pressure are reported by the <code>gc</code> profiler enabled in the
+ * <code>benchmark</code> maven profile.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g" })
+public class ContextStartupBenchmark {
+
+    @Param({"1000", "10000", "50000" })
+    private int beanCount;
+
+    @Param({"IMPLEMENTED_BY", "IMPLEMENTED_BY_PREWARM", "ANNOTATION_CONFIG" })
+    private Configuration configuration;
+
+    private GenericApplicationContext context;
+
+    @Setup(Level.Invocation)
+    public void createContext() {
+        context = SyntheticBeans.createContext(configuration, beanCount, BeanDefinition.SCOPE_SINGLETON);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public GenericApplicationContext refresh() {
+        context.refresh();
+        return context;
+    }
+}
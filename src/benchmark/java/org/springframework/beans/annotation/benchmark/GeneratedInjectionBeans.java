@@ -0,0 +1,69 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation.benchmark;
+
+import javax.inject.Inject;
+
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.ServiceA;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.ServiceB;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.ServiceC;
+
+/**
+ * Beans of {@link GeneratedInjectionBenchmark}, with injection points accessible from their generated injectors.
+ * <p>They are loaded again, with this enclosing class, by the class loader of their injectors.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ */
+public final class GeneratedInjectionBeans {
+
+    private GeneratedInjectionBeans() {
+    }
+
+    public static class PackageFieldConsumer {
+
+        @Inject
+        ServiceA serviceA;
+
+        @Inject
+        ServiceB serviceB;
+
+        @Inject
+        ServiceC serviceC;
+    }
+
+    public static class PackageSetterConsumer {
+
+        private ServiceA serviceA;
+
+        private ServiceB serviceB;
+
+        private ServiceC serviceC;
+
+        @Inject
+        public void setServiceA(final ServiceA serviceA) {
+            this.serviceA = serviceA;
+        }
+
+        @Inject
+        public void setServiceB(final ServiceB serviceB) {
+            this.serviceB = serviceB;
+        }
+
+        @Inject
+        public void setServiceC(final ServiceC serviceC) {
+            this.serviceC = serviceC;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation.benchmark;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.annotation.ExtendAutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.annotation.GeneratedInjector;
+import org.springframework.beans.annotation.ImplementedByInjectorGenerator;
+import org.springframework.beans.annotation.benchmark.GeneratedInjectionBeans.PackageFieldConsumer;
+import org.springframework.beans.annotation.benchmark.GeneratedInjectionBeans.PackageSetterConsumer;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Compares the cost of injecting an already created bean through reflection and through its generated injector,
+ * once its injection points and dependencies are cached.
+ * <p>The injectors are generated and compiled at setup into a temporary directory, and loaded along with their
+ * bean classes by a dedicated class loader, so that they can set package private fields.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GeneratedInjectionBenchmark {
+
+    @Param({"false", "true" })
+    private boolean generatedInjectors;
+
+    private File directory;
+
+    private ExtendAutowiredAnnotationBeanPostProcessor processor;
+
+    private Class<?> fieldConsumerClass;
+
+    private Class<?> setterConsumerClass;
+
+    @Setup(Level.Trial)
+    public void createProcessor() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("A JDK is required to compile the generated injectors");
+        }
+        directory = File.createTempFile("injectors", "");
+        if (!directory.delete() || !directory.mkdir()) {
+            throw new IllegalStateException("Unable to create directory " + directory);
+        }
+        ImplementedByInjectorGenerator generator =
+                new ImplementedByInjectorGenerator(directory, getClass().getClassLoader());
+        generator.generate(PackageFieldConsumer.class);
+        generator.generate(PackageSetterConsumer.class);
+        for (Class<?> clazz : new Class<?>[] {PackageFieldConsumer.class, PackageSetterConsumer.class }) {
+            File source = new File(directory, clazz.getName().replace('.', '/') + GeneratedInjector.SUFFIX + ".java");
+            int status = compiler.run(null, null, null, "-nowarn", "-classpath",
+                System.getProperty("java.class.path"), "-d", directory.getPath(), source.getPath());
+            if (status != 0) {
+                throw new IllegalStateException("Unable to compile " + source);
+            }
+        }
+        Set<String> names = new HashSet<String>(Arrays.asList(GeneratedInjectionBeans.class.getName(),
+            PackageFieldConsumer.class.getName(), PackageFieldConsumer.class.getName() + GeneratedInjector.SUFFIX,
+            PackageSetterConsumer.class.getName(), PackageSetterConsumer.class.getName() + GeneratedInjector.SUFFIX));
+        URL[] urls = {directory.toURI().toURL(),
+                GeneratedInjectionBenchmark.class.getProtectionDomain().getCodeSource().getLocation() };
+        ClassLoader classLoader = new ChildFirstClassLoader(urls, getClass().getClassLoader(), names);
+        fieldConsumerClass = classLoader.loadClass(PackageFieldConsumer.class.getName());
+        setterConsumerClass = classLoader.loadClass(PackageSetterConsumer.class.getName());
+
+        processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setUseGeneratedInjectors(generatedInjectors);
+        processor.setStatisticsEnabled(true);
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+        // registers the defaults and caches the injection points
+        processor.processInjection(BeanUtils.instantiateClass(fieldConsumerClass));
+        processor.processInjection(BeanUtils.instantiateClass(setterConsumerClass));
+        long expected = (generatedInjectors ? 6 : 0);
+        if (processor.getStatistics().getGeneratedInjectionCount() != expected) {
+            throw new IllegalStateException("Expected " + expected + " injections through generated injectors");
+        }
+        processor.setStatisticsEnabled(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void destroyProcessor() {
+        processor.destroy();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Object fieldInjection() {
+        Object bean = BeanUtils.instantiateClass(fieldConsumerClass);
+        processor.processInjection(bean);
+        return bean;
+    }
+
+    @Benchmark
+    public Object setterInjection() {
+        Object bean = BeanUtils.instantiateClass(setterConsumerClass);
+        processor.processInjection(bean);
+        return bean;
+    }
+
+    /**
+     * Loads the bean classes and their injectors itself, the other classes from its parent.
+     */
+    private static class ChildFirstClassLoader extends URLClassLoader {
+
+        private final Set<String> names;
+
+        public ChildFirstClassLoader(final URL[] urls, final ClassLoader parent, final Set<String> names) {
+            super(urls, parent);
+            this.names = names;
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(final String name, final boolean resolve)
+                throws ClassNotFoundException {
+            if (!names.contains(name)) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                clazz = findClass(name);
+            }
+            if (resolve) {
+                resolveClass(clazz);
+            }
+            return clazz;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation.benchmark;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.TypeConverter;
+import org.springframework.beans.annotation.ExtendAutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.annotation.InjectionStatisticsMBean;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.ServiceA;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.ServiceB;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * Measures the resolution of dependencies not yet cached by their injection point, as done for each
+ * injection point at startup, for types with and without {@link org.springframework.beans.annotation.ImplementedBy}.
+ * <p>The number of reflective lookups of the annotation against the number of lookups is printed at the end.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ImplementedByLookupBenchmark {
+
+    private LookupProcessor processor;
+
+    private DependencyDescriptor stringDependency;
+
+    private DependencyDescriptor listDependency;
+
+    private DependencyDescriptor serviceDependency;
+
+    @Setup
+    public void createProcessor() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        processor = new LookupProcessor();
+        // the lookups are only counted with the statistics.
+        processor.setStatisticsEnabled(true);
+        processor.setBeanFactory(beanFactory);
+        beanFactory.addBeanPostProcessor(processor);
+        stringDependency = new DependencyDescriptor(Dependencies.class.getDeclaredField("name"), false);
+        listDependency = new DependencyDescriptor(Dependencies.class.getDeclaredField("services"), false);
+        serviceDependency = new DependencyDescriptor(Dependencies.class.getDeclaredField("service"), true);
+        // registers the default implementation
+        processor.resolve(serviceDependency);
+    }
+
+    @TearDown
+    public void printLookups() {
+        System.out.println();
+        InjectionStatisticsMBean statistics = processor.getStatistics();
+        System.out.println("@ImplementedBy lookups: " + statistics.getImplementedByLookupCount()
+                + ", reflective lookups: " + statistics.getImplementedByReflectionCount());
+        processor.destroy();
+    }
+
+    @Benchmark
+    public Object jdkType() {
+        return processor.resolve(stringDependency);
+    }
+
+    @Benchmark
+    public Object collectionType() {
+        return processor.resolve(listDependency);
+    }
+
+    @Benchmark
+    public Object implementedByType() {
+        return processor.resolve(serviceDependency);
+    }
+
+    /**
+     * Processor exposing the resolution of a dependency.
+     */
+    public static class LookupProcessor extends ExtendAutowiredAnnotationBeanPostProcessor {
+
+        private TypeConverter typeConverter;
+
+        public Object resolve(final DependencyDescriptor descriptor) {
+            if (typeConverter == null) {
+                typeConverter = new DefaultListableBeanFactory().getTypeConverter();
+            }
+            return resolveDependency(descriptor, "dependencies", new LinkedHashSet<String>(1), typeConverter);
+        }
+    }
+
+    public static class Dependencies {
+
+        private String name;
+
+        private List<ServiceB> services;
+
+        private ServiceA service;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.annotation.ExtendAutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.FieldConsumer;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.ServiceA;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.ServiceB;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.ServiceC;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.SetterConsumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * Measures the cost of injecting an already created bean once its injection points are cached,
+ * as for prototype or request scoped beans.
+ * @author devacfr<christophefriederich@mac.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class InjectionBenchmark {
+
+    private ExtendAutowiredAnnotationBeanPostProcessor processor;
+
+    @Setup
+    public void createProcessor() {
+        processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+        // registers the defaults and caches the injection points
+        processor.processInjection(new FieldConsumer());
+        processor.processInjection(new SetterConsumer());
+        processor.processInjection(new CollectionSetterConsumer());
+    }
+
+    @Benchmark
+    public Object fieldInjection() {
+        FieldConsumer bean = new FieldConsumer();
+        processor.processInjection(bean);
+        return bean;
+    }
+
+    @Benchmark
+    public Object setterInjection() {
+        SetterConsumer bean = new SetterConsumer();
+        processor.processInjection(bean);
+        return bean;
+    }
+
+    /**
+     * Setter whose collection parameters are resolved again on each injection.
+     */
+    @Benchmark
+    public Object collectionSetterInjection() {
+        CollectionSetterConsumer bean = new CollectionSetterConsumer();
+        processor.processInjection(bean);
+        return bean;
+    }
+
+    public static class CollectionSetterConsumer {
+
+        private ServiceA serviceA;
+
+        private List<ServiceB> servicesB;
+
+        private List<ServiceC> servicesC;
+
+        @Autowired
+        public void setServices(final ServiceA serviceA, final List<ServiceB> servicesB,
+                                final List<ServiceC> servicesC) {
+            this.serviceA = serviceA;
+            this.servicesB = servicesB;
+            this.servicesC = servicesC;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.annotation.ExtendAutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+/**
+ * Measures the metadata construction of a cold post-processor for classes declaring hundreds of fields
+ * and methods, mostly not annotated.
+ * @author devacfr<christophefriederich@mac.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MetadataBuildBenchmark {
+
+    /**
+     * classes with hundreds of members, with their hierarchy.
+     */
+    private static final Class<?>[] CLASSES = {javax.swing.JTable.class, javax.swing.JTree.class,
+            javax.swing.JFileChooser.class, javax.swing.JTabbedPane.class };
+
+    @Benchmark
+    public Object buildMetadata() {
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+        for (Class<?> clazz : CLASSES) {
+            processor.postProcessMergedBeanDefinition(new RootBeanDefinition(clazz), clazz, clazz.getName());
+        }
+        return processor;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation.benchmark;
+
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.TypeConverter;
+import org.springframework.beans.annotation.ExtendAutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.annotation.benchmark.SyntheticBeans.FieldConsumer;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Measures the cost of resolving an {@link org.springframework.beans.annotation.ImplementedBy} dependency, as on
+ * the first injection of each injection point, with and without the resolutions shared by injection points of
+ * the same dependency.
+ * @author devacfr<christophefriederich@mac.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ResolutionBenchmark {
+
+    @Param({"100", "10000" })
+    private int beanCount;
+
+    @Param({"false", "true" })
+    private boolean shareResolutions;
+
+    private ResolvingProcessor processor;
+
+    private DependencyDescriptor descriptor;
+
+    @Setup
+    public void createProcessor() {
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        processor = new ResolvingProcessor();
+        processor.setShareResolutions(shareResolutions);
+        processor.setBeanFactory(factory);
+        factory.addBeanPostProcessor(processor);
+        Class<?>[] consumers = SyntheticBeans.consumers();
+        for (int i = 0; i < beanCount; i++) {
+            RootBeanDefinition def = new RootBeanDefinition(consumers[i % consumers.length]);
+            def.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+            factory.registerBeanDefinition("consumer" + i, def);
+        }
+        factory.freezeConfiguration();
+        descriptor = new DependencyDescriptor(ReflectionUtils.findField(FieldConsumer.class, "serviceA"), true);
+        // registers the default
+        processor.resolve(descriptor, "consumer0");
+    }
+
+    @Benchmark
+    public Object resolution() {
+        return processor.resolve(descriptor, "consumer1");
+    }
+
+    /**
+     * Exposes the resolution of dependencies.
+     */
+    private static class ResolvingProcessor extends ExtendAutowiredAnnotationBeanPostProcessor {
+
+        private TypeConverter typeConverter;
+
+        @Override
+        public void setBeanFactory(final BeanFactory beanFactory) {
+            super.setBeanFactory(beanFactory);
+            typeConverter = ((DefaultListableBeanFactory) beanFactory).getTypeConverter();
+        }
+
+        public Object resolve(final DependencyDescriptor dependency, final String beanName) {
+            return resolveDependency(dependency, beanName, new LinkedHashSet<String>(1), typeConverter);
+        }
+    }
+}
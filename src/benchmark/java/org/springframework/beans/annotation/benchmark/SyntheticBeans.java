@@ -0,0 +1,174 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation.benchmark;
+
+import javax.inject.Inject;
+
+import org.springframework.beans.annotation.ExtendAutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.annotation.ImplementedBy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Synthetic beans and contexts used by the benchmarks.
+ * <p>Consumers inject {@link ImplementedBy} interfaces through fields, setters and constructors.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ */
+public final class SyntheticBeans {
+
+    /**
+     * Kind of annotation configuration used to build a synthetic context.
+     */
+    public enum Configuration {
+        /**
+         * <code>&lt;implementedby:annotation-config/&gt;</code>, defaults are registered just-in-time.
+         */
+        IMPLEMENTED_BY,
+        /**
+         * <code>&lt;implementedby:annotation-config prewarm="true"/&gt;</code>, metadata is built in parallel
+         * before the pre-instantiation.
+         */
+        IMPLEMENTED_BY_PREWARM,
+        /**
+         * stock <code>&lt;context:annotation-config/&gt;</code>, defaults are declared explicitly.
+         */
+        ANNOTATION_CONFIG
+    }
+
+    /**
+     * consumer classes, registered in round robin.
+     */
+    private static final Class<?>[] CONSUMERS = {FieldConsumer.class, SetterConsumer.class,
+            ConstructorConsumer.class };
+
+    /**
+     * default implementations of the injected interfaces.
+     */
+    private static final Class<?>[] DEFAULTS = {DefaultServiceA.class, DefaultServiceB.class,
+            DefaultServiceC.class };
+
+    private SyntheticBeans() {
+    }
+
+    /**
+     * Creates a not refreshed context containing <code>beanCount</code> consumer beans.
+     * @param configuration the annotation configuration to use
+     * @param beanCount number of consumer beans
+     * @param scope the scope of consumer beans
+     * @return Returns a new context ready to refresh.
+     */
+    public static GenericApplicationContext createContext(final Configuration configuration, final int beanCount,
+                                                          final String scope) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        if (configuration != Configuration.ANNOTATION_CONFIG) {
+            RootBeanDefinition def = new RootBeanDefinition(ExtendAutowiredAnnotationBeanPostProcessor.class);
+            def.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+            def.getPropertyValues().add("prewarm", configuration == Configuration.IMPLEMENTED_BY_PREWARM);
+            context.registerBeanDefinition(AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME, def);
+        } else {
+            for (Class<?> clazz : DEFAULTS) {
+                context.registerBeanDefinition(clazz.getCanonicalName(), new RootBeanDefinition(clazz));
+            }
+        }
+        AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+        for (int i = 0; i < beanCount; i++) {
+            RootBeanDefinition def = new RootBeanDefinition(CONSUMERS[i % CONSUMERS.length]);
+            def.setScope(scope);
+            context.registerBeanDefinition("consumer" + i, def);
+        }
+        return context;
+    }
+
+    /**
+     * Gets the consumer bean classes.
+     * @return Returns the consumer bean classes.
+     */
+    public static Class<?>[] consumers() {
+        return CONSUMERS.clone();
+    }
+
+    @ImplementedBy(DefaultServiceA.class)
+    public interface ServiceA {
+    }
+
+    @ImplementedBy(DefaultServiceB.class)
+    public interface ServiceB {
+    }
+
+    @ImplementedBy(DefaultServiceC.class)
+    public interface ServiceC {
+    }
+
+    public static class DefaultServiceA implements ServiceA {
+    }
+
+    public static class DefaultServiceB implements ServiceB {
+    }
+
+    public static class DefaultServiceC implements ServiceC {
+    }
+
+    public static class FieldConsumer {
+
+        @Inject
+        private ServiceA serviceA;
+
+        @Autowired
+        private ServiceB serviceB;
+
+        @Inject
+        private ServiceC serviceC;
+    }
+
+    public static class SetterConsumer {
+
+        private ServiceA serviceA;
+
+        private ServiceB serviceB;
+
+        private ServiceC serviceC;
+
+        @Inject
+        public void setServiceA(final ServiceA serviceA) {
+            this.serviceA = serviceA;
+        }
+
+        @Autowired
+        public void setServices(final ServiceB serviceB, final ServiceC serviceC) {
+            this.serviceB = serviceB;
+            this.serviceC = serviceC;
+        }
+    }
+
+    public static class ConstructorConsumer {
+
+        private final ServiceA serviceA;
+
+        private final ServiceB serviceB;
+
+        private final ServiceC serviceC;
+
+        @Autowired
+        public ConstructorConsumer(final ServiceA serviceA, final ServiceB serviceB, final ServiceC serviceC) {
+            this.serviceA = serviceA;
+            this.serviceB = serviceB;
+            this.serviceC = serviceC;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.aop.target.AbstractPoolingTargetSource;
+
+/**
+ * Pooling target source without external dependency, backing the {@link ImplementedByScope#POOLED} defaults.
+ * <p>Instances are created on demand up to the maximum size, then callers wait for an instance to be released.
+ * The last released instance is borrowed first, so a lightly loaded pool reuses warm instances.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+public class BoundedPoolTargetSource extends AbstractPoolingTargetSource {
+
+    /**
+     * serial version UID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the idle instances.
+     */
+    private final transient BlockingDeque<Object> idleTargets = new LinkedBlockingDeque<Object>();
+
+    /**
+     * number of borrowed instances.
+     */
+    private final transient AtomicInteger activeCount = new AtomicInteger();
+
+    /**
+     * permits bounding the borrowed instances, <code>null</code> if unbounded.
+     */
+    private transient Semaphore permits;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void createPool() {
+        this.permits = (getMaxSize() > 0 ? new Semaphore(getMaxSize()) : null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getTarget() throws Exception {
+        if (this.permits != null) {
+            this.permits.acquire();
+        }
+        // the permit is returned whatever the failure (exception or error) creating the target.
+        boolean obtained = false;
+        try {
+            Object target = this.idleTargets.pollFirst();
+            if (target == null) {
+                target = newPrototypeInstance();
+            }
+            this.activeCount.incrementAndGet();
+            obtained = true;
+            return target;
+        } finally {
+            if (!obtained && this.permits != null) {
+                this.permits.release();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void releaseTarget(final Object target) {
+        this.activeCount.decrementAndGet();
+        this.idleTargets.offerFirst(target);
+        if (this.permits != null) {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getActiveCount() {
+        return this.activeCount.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIdleCount() {
+        return this.idleTargets.size();
+    }
+
+    /**
+     * Destroys the idle instances.
+     */
+    @Override
+    public void destroy() {
+        Object target;
+        while ((target = this.idleTargets.pollFirst()) != null) {
+            destroyPrototypeInstance(target);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Cache of values computed once per class.
+ * <p>The value of a class is created by the first thread requesting it, the other threads requesting
+ * the same class wait for this value only, threads requesting other classes are never blocked.
+ * A failed creation is not cached, the exception is thrown to all waiting threads.</p>
+ * <p>Classes are weakly referenced, so the cache never prevents the unloading of a class loader.
+ * As cached values usually reference their class, values of classes not visible from the
+ * {@link #setClassLoader(ClassLoader) cache class loader} are weakly referenced too and may be created
+ * again after a garbage collection. The cache can also be bounded, oldest classes are then evicted first.</p>
+ * @param <V> type of cached values.
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+abstract class ConcurrentClassCache<V> {
+
+    /**
+     * the values or creation in progress, per class. Values are either {@link Future} or
+     * {@link Reference} to a {@link Future}.
+     */
+    private final ConcurrentMap<ClassKey, Object> cache = new ConcurrentHashMap<ClassKey, Object>();
+
+    /**
+     * the keys of unloaded classes.
+     */
+    private final ReferenceQueue<Class<?>> staleKeys = new ReferenceQueue<Class<?>>();
+
+    /**
+     * keys in insertion order, only used when the cache is bounded.
+     */
+    private final Queue<ClassKey> insertionOrder = new ConcurrentLinkedQueue<ClassKey>();
+
+    /**
+     * the class loader whose classes can be safely strongly referenced.
+     */
+    private volatile ClassLoader classLoader;
+
+    /**
+     * maximum number of cached classes, 0 if unbounded.
+     */
+    private volatile int maximumSize = 0;
+
+    /**
+     * Sets the class loader whose classes (and classes of its parents) can be safely strongly referenced.
+     * <p>If not set, all values are strongly referenced.</p>
+     * @param classLoader the class loader, typically the bean class loader.
+     */
+    public void setClassLoader(@Nullable final ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Sets the maximum number of cached classes.
+     * @param maximumSize the maximum number of cached classes, 0 if unbounded (default).
+     */
+    public void setMaximumSize(final int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Gets the value of the class, creates it if necessary.
+     * @param key the class
+     * @return Returns the value of the class.
+     */
+    @Nonnull
+    public V get(@Nonnull final Class<?> key) {
+        Future<V> future = dereference(cache.get(new ClassKey(key, null)));
+        if (future == null) {
+            future = putIfAbsent(key);
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            remove(key, future);
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting value of " + key, ex);
+        }
+    }
+
+    /**
+     * Gets the number of classes cached or in creation.
+     * @return Returns the number of classes cached or in creation.
+     */
+    public int size() {
+        purgeStaleEntries();
+        return cache.size();
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    public void clear() {
+        cache.clear();
+        insertionOrder.clear();
+    }
+
+    /**
+     * Creates the value of a class.
+     * <p>Must not request the value of the same class.</p>
+     * @param key the class
+     * @return Returns the new value.
+     */
+    @Nonnull
+    protected abstract V create(@Nonnull Class<?> key);
+
+    /**
+     * Publishes a creation of value for the class, unless another thread did it.
+     * @param key the class
+     * @return Returns the creation of value, run by the current thread or in progress in another thread.
+     */
+    @Nonnull
+    private Future<V> putIfAbsent(@Nonnull final Class<?> key) {
+        purgeStaleEntries();
+        FutureTask<V> task = new FutureTask<V>(new Callable<V>() {
+
+            @Override
+            public V call() {
+                return create(key);
+            }
+        });
+        ClassKey entryKey = new ClassKey(key, staleKeys);
+        Object entry = (isCacheSafe(key) ? task : new WeakReference<Future<V>>(task));
+        while (true) {
+            Object existing = cache.putIfAbsent(entryKey, entry);
+            if (existing == null) {
+                evictIfNecessary(entryKey);
+                break;
+            }
+            Future<V> future = dereference(existing);
+            if (future != null) {
+                return future;
+            }
+            // the value has been garbage collected.
+            if (cache.replace(entryKey, existing, entry)) {
+                break;
+            }
+        }
+        task.run();
+        return task;
+    }
+
+    /**
+     * Removes the value of the class if it is still the given one.
+     * @param key the class
+     * @param future the value to remove
+     */
+    private void remove(@Nonnull final Class<?> key, @Nonnull final Future<V> future) {
+        ClassKey lookup = new ClassKey(key, null);
+        Object existing = cache.get(lookup);
+        if (existing != null && dereference(existing) == future) {
+            cache.remove(lookup, existing);
+        }
+    }
+
+    /**
+     * Evicts the oldest classes if the cache is bounded and full.
+     * @param key the key just inserted
+     */
+    private void evictIfNecessary(@Nonnull final ClassKey key) {
+        int max = this.maximumSize;
+        if (max > 0) {
+            insertionOrder.add(key);
+            while (cache.size() > max) {
+                ClassKey eldest = insertionOrder.poll();
+                if (eldest == null) {
+                    break;
+                }
+                cache.remove(eldest);
+            }
+        }
+    }
+
+    /**
+     * Removes the entries of unloaded classes.
+     */
+    private void purgeStaleEntries() {
+        Reference<? extends Class<?>> ref;
+        while ((ref = staleKeys.poll()) != null) {
+            cache.remove(ref);
+            insertionOrder.remove(ref);
+        }
+    }
+
+    /**
+     * Indicates whether the value of the class can be strongly referenced.
+     * @param key the class
+     * @return Returns <code>true</code> if the class is visible from the cache class loader.
+     */
+    private boolean isCacheSafe(@Nonnull final Class<?> key) {
+        ClassLoader cl = this.classLoader;
+        return cl == null || key.getClassLoader() == null || ClassUtils.isCacheSafe(key, cl);
+    }
+
+    /**
+     * Gets the value of a cache entry.
+     * @param entry the cache entry, may be <code>null</code>
+     * @return Returns the value, or <code>null</code> if none or garbage collected.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Future<V> dereference(@Nullable final Object entry) {
+        if (entry instanceof Reference) {
+            return ((Reference<Future<V>>) entry).get();
+        }
+        return (Future<V>) entry;
+    }
+
+    /**
+     * Weak reference to a class, compared by identity.
+     */
+    private static final class ClassKey extends WeakReference<Class<?>> {
+
+        /**
+         * identity hash code of the class.
+         */
+        private final int hash;
+
+        /**
+         * Default constructor.
+         * @param key the class
+         * @param queue the queue notified when the class is unloaded, or <code>null</code> for a lookup key.
+         */
+        ClassKey(@Nonnull final Class<?> key, @Nullable final ReferenceQueue<Class<?>> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof ClassKey)) {
+                return false;
+            }
+            Class<?> key = get();
+            return key != null && key == ((ClassKey) obj).get();
+        }
+    }
+}
@@ -16,27 +16,48 @@
 package org.springframework.beans.annotation;
 
 import java.beans.PropertyDescriptor;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactoryBean;
+import org.springframework.aop.target.LazyInitTargetSource;
+import org.springframework.aop.target.ThreadLocalTargetSource;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.PropertyValues;
@@ -45,10 +66,16 @@ import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.HierarchicalBeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.InjectionMetadata;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
@@ -56,13 +83,17 @@ import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.ReflectionUtils;
 
 /**
@@ -110,7 +141,55 @@ import org.springframework.util.ReflectionUtils;
  * @see Value
  */
 public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter implements
-        MergedBeanDefinitionPostProcessor, PriorityOrdered, BeanFactoryAware {
+        MergedBeanDefinitionPostProcessor, PriorityOrdered, BeanFactoryAware,
+        DisposableBean, ApplicationListener<ContextRefreshedEvent> {
+
+    /**
+     * suffix of the name of lazy default proxies, appended to the name of default implementation.
+     */
+    public static final String LAZY_PROXY_SUFFIX = "#lazy";
+
+    /**
+     * suffix of the name of thread scoped default proxies, appended to the name of default implementation.
+     */
+    public static final String THREAD_PROXY_SUFFIX = "#thread";
+
+    /**
+     * suffix of the name of pooled default proxies, appended to the name of default implementation.
+     */
+    public static final String POOLED_PROXY_SUFFIX = "#pooled";
+
+    /**
+     * number of reusable type converters, a power of two.
+     */
+    private static final int TYPE_CONVERTER_SLOTS =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    /**
+     * cached value of an injected element resolving to nothing to inject.
+     */
+    private static final Object NO_VALUE = new Object();
+
+    /**
+     * the domain of statistics MBean names, independent of the class of post-processor.
+     */
+    static final String STATISTICS_DOMAIN = "org.springframework.beans.annotation";
+
+    /**
+     * packages of the JDK, whose types never carry {@link ImplementedBy}.
+     */
+    private static final String[] SKIPPED_PACKAGE_PREFIXES = {"java.", "javax." };
+
+    /**
+     * no injected element.
+     */
+    private static final InjectionMetadata.InjectedElement[] NO_ELEMENTS = new InjectionMetadata.InjectedElement[0];
+
+    /**
+     * injection metadata shared by all classes without injected element.
+     */
+    private static final InjectionMetadata EMPTY_METADATA =
+            new InjectionMetadata(Object.class, Arrays.asList(NO_ELEMENTS));
 
     /**
      * log instance.
@@ -128,6 +207,18 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
     private final Set<Class<? extends Annotation>> autowiredAnnotationTypes =
             new LinkedHashSet<Class<? extends Annotation>>();
 
+    /**
+     * the priority of each autowired annotation type, its rank in {@link #autowiredAnnotationTypes}.
+     */
+    private volatile Map<Class<? extends Annotation>, Integer> autowiredAnnotationPriorities =
+            new IdentityHashMap<Class<? extends Annotation>, Integer>();
+
+    /**
+     * the accessor of required parameter per annotation type, {@link #NO_VALUE} if the annotation has none.
+     */
+    private final ConcurrentMap<Class<? extends Annotation>, Object> requiredAccessors =
+            new ConcurrentHashMap<Class<? extends Annotation>, Object>();
+
     /**
      * name of required parameter of annotation.
      */
@@ -148,17 +239,185 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
      */
     private DefaultListableBeanFactory beanFactory;
 
+    /**
+     * the singleton mutex of the bean factory, held while registering a default implementation.
+     */
+    private Object singletonMutex;
+
+    /**
+     * indicating whether the compile time index of {@link ImplementedBy} bindings is used.
+     */
+    private boolean useBindingIndex = false;
+
+    /**
+     * indicating whether injectors generated at build time are used when present.
+     */
+    private boolean useGeneratedInjectors = false;
+
+    /**
+     * indicating whether the resolutions of {@link ImplementedBy} dependencies are shared by injection points.
+     */
+    private boolean shareResolutions = true;
+
+    /**
+     * the index of {@link ImplementedBy} bindings, loaded on first use.
+     */
+    private volatile ImplementedByIndex bindingIndex;
+
+    /**
+     * indicating whether all default implementations of interfaces are created on first use.
+     */
+    private boolean lazyDefaults = false;
+
+    /**
+     * indicating whether the caches are filled in parallel for all bean definitions when the factory is set.
+     */
+    private boolean prewarm = false;
+
+    /**
+     * number of threads filling the caches.
+     */
+    private int prewarmThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * number of resolutions falling back to the default implementation after an exception.
+     */
+    private final AtomicLong resolutionFallbackCount = new AtomicLong();
+
+    /**
+     * the file of warm-start cache, <code>null</code> if disabled.
+     */
+    private File warmStartCacheFile;
+
+    /**
+     * the on-disk cache of reflection results, <code>null</code> if disabled.
+     */
+    private volatile WarmStartCache warmStartCache;
+
+    /**
+     * reusable type converters, chosen by thread id. A converter is borrowed by one thread at a time, as
+     * creating a converter of the factory registers all its property editors. A converter copies the conversion
+     * service and the custom editors of the factory, so converters are only pooled once the configuration of the
+     * factory is frozen.
+     */
+    private final AtomicReferenceArray<TypeConverter> typeConverters =
+            new AtomicReferenceArray<TypeConverter>(TYPE_CONVERTER_SLOTS);
+
+    /**
+     * the autowired bean of {@link ImplementedBy} dependencies resolved to a single bean, per dependency.
+     */
+    private final ConcurrentMap<ResolutionKey, ResolvedBeanName> resolvedBeanNames =
+            new ConcurrentHashMap<ResolutionKey, ResolvedBeanName>();
+
+    /**
+     * the injection statistics, <code>null</code> if disabled.
+     */
+    private volatile InjectionStatistics statistics;
+
+    /**
+     * the name of statistics MBean, <code>null</code> if not registered.
+     */
+    private ObjectName statisticsObjectName;
+
+    /**
+     * the file of startup trace, <code>null</code> if disabled.
+     */
+    private File traceFile;
+
+    /**
+     * the startup trace, <code>null</code> if disabled or already written.
+     */
+    private volatile InjectionTrace injectionTrace;
+
+    /**
+     * the Java Flight Recorder events, <code>null</code> if disabled or not available.
+     */
+    private volatile InjectionEvents injectionEvents = InjectionEvents.createFlightRecorderEvents();
+
+    /**
+     * the {@link ImplementedBy} annotation per class, {@link #NO_VALUE} if not annotated.
+     */
+    private final ConcurrentClassCache<Object> implementedByAnnotations = new ConcurrentClassCache<Object>() {
+
+        @Override
+        protected Object create(final Class<?> key) {
+            Annotation annotation = lookupImplementedByAnnotation(key);
+            return (annotation != null ? annotation : NO_VALUE);
+        }
+    };
+
     /**
      * cache of prefered constructor for classes.
      */
-    private final Map<Class<?>, Constructor<?>[]> candidateConstructorsCache =
-            new ConcurrentHashMap<Class<?>, Constructor<?>[]>();
+    private final ConcurrentClassCache<CandidateConstructors> candidateConstructorsCache =
+            new ConcurrentClassCache<CandidateConstructors>() {
+
+                @Override
+                protected CandidateConstructors create(final Class<?> key) {
+                    InjectionTrace trace = injectionTrace;
+                    if (trace == null) {
+                        return new CandidateConstructors(buildCandidateConstructors(key));
+                    }
+                    long startTime = System.nanoTime();
+                    CandidateConstructors constructors = new CandidateConstructors(buildCandidateConstructors(key));
+                    trace.record(InjectionTrace.CONSTRUCTORS, key.getName(), startTime);
+                    return constructors;
+                }
+            };
+
+    /**
+     * the injector generated at build time per class, {@link #NO_VALUE} if none.
+     */
+    private final ConcurrentClassCache<Object> generatedInjectors = new ConcurrentClassCache<Object>() {
+
+        @Override
+        protected Object create(final Class<?> key) {
+            GeneratedInjector injector = loadGeneratedInjector(key);
+            return (injector != null ? injector : NO_VALUE);
+        }
+    };
+
+    /**
+     * the injection points declared per class, shared by the metadata of its subclasses.
+     */
+    private final ConcurrentClassCache<DeclaredInjectionPoints> declaredInjectionPoints =
+            new ConcurrentClassCache<DeclaredInjectionPoints>() {
+
+                @Override
+                protected DeclaredInjectionPoints create(final Class<?> key) {
+                    return scanInjectionPoints(key);
+                }
+            };
 
     /**
      * cache of inject metadata for classes.
      */
-    private final Map<Class<?>, InjectionMetadata> injectionMetadataCache =
-            new ConcurrentHashMap<Class<?>, InjectionMetadata>();
+    private final ConcurrentClassCache<InjectionMetadata> injectionMetadataCache =
+            new ConcurrentClassCache<InjectionMetadata>() {
+
+                @Override
+                protected InjectionMetadata create(final Class<?> key) {
+                    InjectionStatistics stats = statistics;
+                    InjectionTrace trace = injectionTrace;
+                    InjectionEvents events = injectionEvents;
+                    Object event = (events != null ? events.beginMetadataBuild() : null);
+                    if (stats == null && trace == null && event == null) {
+                        return buildAutowiringMetadata(key);
+                    }
+                    long startTime = System.nanoTime();
+                    InjectionMetadata metadata = buildAutowiringMetadata(key);
+                    if (stats != null) {
+                        stats.metadataBuilt(startTime);
+                    }
+                    if (trace != null) {
+                        trace.record(InjectionTrace.METADATA, key.getName(), startTime);
+                    }
+                    if (event != null) {
+                        events.endMetadataBuild(event, key);
+                    }
+                    return metadata;
+                }
+            };
 
     /**
      * Create a new AutowiredAnnotationBeanPostProcessor
@@ -176,6 +435,7 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
         } catch (ClassNotFoundException ex) {
             // JSR-330 API not available - simply skip.
         }
+        requiredStatusChanged();
     }
 
     /**
@@ -192,6 +452,7 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
         Assert.notNull(autowiredAnnotationType, "'autowiredAnnotationType' must not be null");
         this.autowiredAnnotationTypes.clear();
         this.autowiredAnnotationTypes.add(autowiredAnnotationType);
+        requiredStatusChanged();
     }
 
     /**
@@ -208,6 +469,7 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
         Assert.notEmpty(autowiredAnnotationTypes, "'autowiredAnnotationTypes' must not be empty");
         this.autowiredAnnotationTypes.clear();
         this.autowiredAnnotationTypes.addAll(autowiredAnnotationTypes);
+        requiredStatusChanged();
     }
 
     /**
@@ -218,6 +480,7 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
      */
     public void setRequiredParameterName(@Nonnull final String requiredParameterName) {
         this.requiredParameterName = requiredParameterName;
+        requiredStatusChanged();
     }
 
     /**
@@ -230,6 +493,170 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
      */
     public void setRequiredParameterValue(@Nonnull final boolean requiredParameterValue) {
         this.requiredParameterValue = requiredParameterValue;
+        requiredStatusChanged();
+    }
+
+    /**
+     * Caches the priority and the accessor of required parameter of each autowired annotation type, and
+     * removes the injection points determined with the previous configuration.
+     */
+    private void requiredStatusChanged() {
+        Map<Class<? extends Annotation>, Integer> priorities =
+                new IdentityHashMap<Class<? extends Annotation>, Integer>(this.autowiredAnnotationTypes.size());
+        for (Class<? extends Annotation> type : this.autowiredAnnotationTypes) {
+            priorities.put(type, priorities.size());
+        }
+        this.autowiredAnnotationPriorities = priorities;
+        this.requiredAccessors.clear();
+        for (Class<? extends Annotation> type : this.autowiredAnnotationTypes) {
+            this.requiredAccessors.put(type, findRequiredAccessor(type));
+        }
+        this.declaredInjectionPoints.clear();
+        this.injectionMetadataCache.clear();
+        this.candidateConstructorsCache.clear();
+    }
+
+    /**
+     * Set whether the {@link ImplementedBy} bindings are looked up in the index generated at compile time
+     * by {@link ImplementedByProcessor}, instead of reflecting on each injected type.
+     * <p>Only types listed in the index are considered as annotated, so all jars declaring
+     * {@link ImplementedBy} types must be compiled with the processor.</p>
+     * @param useBindingIndex <code>true</code> to use the index of bindings (default <code>false</code>).
+     */
+    public void setUseBindingIndex(final boolean useBindingIndex) {
+        this.useBindingIndex = useBindingIndex;
+    }
+
+    /**
+     * Set whether the injectors generated at build time by {@link ImplementedByInjectorGenerator} are used
+     * when present, instead of reflecting on bean classes and injecting through reflection.
+     * <p>Classes without generated injector fall back to reflection, as do classes whose annotated members
+     * changed since their injector was generated (stale injector). The annotations of classes are still
+     * scanned to detect stale injectors, generated injectors save the reflective injection only.</p>
+     * @param useGeneratedInjectors <code>true</code> to use generated injectors (default <code>false</code>).
+     */
+    public void setUseGeneratedInjectors(final boolean useGeneratedInjectors) {
+        this.useGeneratedInjectors = useGeneratedInjectors;
+    }
+
+    /**
+     * Set whether an {@link ImplementedBy} dependency resolved to a single candidate bean is shared by all
+     * injection points of same type, generic declaration and annotations, once the configuration of the factory
+     * is frozen, rather than resolved by each injection point.
+     * @param shareResolutions <code>true</code> to share the resolutions (default <code>true</code>).
+     */
+    public void setShareResolutions(final boolean shareResolutions) {
+        this.shareResolutions = shareResolutions;
+    }
+
+    /**
+     * Set the maximum number of classes whose injection metadata, declared injection points and candidate
+     * constructors are cached, oldest classes are evicted first.
+     * <p>Caches reference classes weakly in any case, a limit is useful when classes are generated
+     * continuously (e.g. CGLIB proxies).</p>
+     * @param cacheLimit the maximum number of cached classes, 0 if unbounded (default).
+     */
+    public void setCacheLimit(final int cacheLimit) {
+        this.injectionMetadataCache.setMaximumSize(cacheLimit);
+        this.candidateConstructorsCache.setMaximumSize(cacheLimit);
+        this.declaredInjectionPoints.setMaximumSize(cacheLimit);
+        this.generatedInjectors.setMaximumSize(cacheLimit);
+    }
+
+    /**
+     * Set whether all default implementations of interfaces are created on first method call,
+     * as if {@link ImplementedBy#lazy()} was set on all annotated interfaces.
+     * @param lazyDefaults <code>true</code> to create all defaults lazily (default <code>false</code>).
+     */
+    public void setLazyDefaults(final boolean lazyDefaults) {
+        this.lazyDefaults = lazyDefaults;
+    }
+
+    /**
+     * Set whether the injection metadata and candidate constructors of all bean classes are built in parallel
+     * as soon as the bean factory is set, i.e. once all bean definitions are loaded and before the singletons
+     * are pre-instantiated.
+     * <p>The pre-instantiation then finds warm caches instead of reflecting on each class on the refresh thread.
+     * Bean classes which can not be loaded or introspected are skipped, their errors are reported when
+     * the bean is created.</p>
+     * @param prewarm <code>true</code> to build the caches in parallel (default <code>false</code>).
+     */
+    public void setPrewarm(final boolean prewarm) {
+        this.prewarm = prewarm;
+    }
+
+    /**
+     * Set the number of threads building the caches when {@link #setPrewarm(boolean) prewarm} is enabled.
+     * @param prewarmThreads the number of threads (default the number of available processors).
+     */
+    public void setPrewarmThreads(final int prewarmThreads) {
+        Assert.isTrue(prewarmThreads > 0, "'prewarmThreads' must be positive");
+        this.prewarmThreads = prewarmThreads;
+    }
+
+    /**
+     * Set the file caching the injection metadata, candidate constructors and {@link ImplementedBy} lookups
+     * across restarts.
+     * <p>The file is read when the bean factory is set and written when the post-processor is destroyed.
+     * It is ignored as soon as the classpath or the configuration of the post-processor changes, and not used at all
+     * when the classpath directories hold more than {@link WarmStartCache#MAX_FINGERPRINT_FILES} files.</p>
+     * @param warmStartCacheFile the cache file, <code>null</code> to disable the cache (default).
+     */
+    public void setWarmStartCacheFile(@Nullable final File warmStartCacheFile) {
+        this.warmStartCacheFile = warmStartCacheFile;
+    }
+
+    /**
+     * Set whether injection statistics are collected and exposed as MBean on the platform MBean server.
+     * <p>The MBean is registered as soon as both the statistics are enabled and the bean factory is set, under the
+     * name <code>org.springframework.beans.annotation:type=InjectionStatistics,identity=&lt;hex identity&gt;</code>,
+     * where the identity is the identity hash code of post-processor.</p>
+     * @param statisticsEnabled <code>true</code> to collect statistics (default <code>false</code>).
+     * @see #getStatistics()
+     */
+    public void setStatisticsEnabled(final boolean statisticsEnabled) {
+        if (statisticsEnabled == (this.statistics != null)) {
+            return;
+        }
+        unregisterStatisticsMBean();
+        this.statistics = (statisticsEnabled ? new InjectionStatistics(this) : null);
+        if (statisticsEnabled && this.beanFactory != null) {
+            registerStatisticsMBean();
+        }
+    }
+
+    /**
+     * Set the file of startup trace, recording the injection work of post-processor in the Chrome trace event
+     * format (<code>chrome://tracing</code>, Perfetto).
+     * <p>The metadata builds, constructor determinations, dependency resolutions, default registrations and
+     * injections are recorded per thread until the end of the refresh of the application context, the trace is
+     * then written and the recording stops. Without application context, the trace is written when the
+     * post-processor is destroyed.</p>
+     * @param traceFile the trace file, <code>null</code> to disable the trace (default).
+     */
+    public void setTraceFile(@Nullable final File traceFile) {
+        this.traceFile = traceFile;
+        this.injectionTrace = (traceFile != null ? new InjectionTrace() : null);
+    }
+
+    /**
+     * Set whether Java Flight Recorder events are emitted for metadata builds, dependency resolutions, default
+     * registrations and injections, when the JVM provides the <code>jdk.jfr</code> API.
+     * <p>The events are recorded according to the settings of running recordings, an event type not enabled
+     * costs a single check per recorded work.</p>
+     * @param flightRecorderEnabled <code>false</code> to never emit events (default <code>true</code>).
+     */
+    public void setFlightRecorderEnabled(final boolean flightRecorderEnabled) {
+        this.injectionEvents = (flightRecorderEnabled ? InjectionEvents.createFlightRecorderEvents() : null);
+    }
+
+    /**
+     * Gets the injection statistics.
+     * @return Returns the injection statistics, or <code>null</code> if disabled.
+     */
+    @Nullable
+    public InjectionStatisticsMBean getStatistics() {
+        return this.statistics;
     }
 
     /**
@@ -258,397 +685,1955 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
                     "ImplementedByAnnotationBeanPostProcessor requires a DefaultListableBeanFactory");
         }
         this.beanFactory = (DefaultListableBeanFactory) beanFactory;
+        this.singletonMutex = findSingletonMutex(this.beanFactory);
+        ClassLoader beanClassLoader = this.beanFactory.getBeanClassLoader();
+        this.injectionMetadataCache.setClassLoader(beanClassLoader);
+        this.candidateConstructorsCache.setClassLoader(beanClassLoader);
+        this.declaredInjectionPoints.setClassLoader(beanClassLoader);
+        this.generatedInjectors.setClassLoader(beanClassLoader);
+        this.implementedByAnnotations.setClassLoader(beanClassLoader);
+        if (this.statistics != null && this.statisticsObjectName == null) {
+            registerStatisticsMBean();
+        }
+        if (this.warmStartCacheFile != null) {
+            String fingerprint = WarmStartCache.fingerprint(beanClassLoader, getCacheConfiguration());
+            if (fingerprint != null) {
+                this.warmStartCache = WarmStartCache.open(this.warmStartCacheFile, fingerprint);
+            }
+        }
+        if (this.prewarm) {
+            prewarmCaches();
+        }
     }
 
     /**
-     * {@inheritDoc}
+     * Gets the configuration affecting the cached reflection results.
+     * @return Returns a description of the configuration.
      */
-    @Override
-    public void postProcessMergedBeanDefinition(@Nonnull final RootBeanDefinition beanDefinition,
-                                                @Nullable final Class<?> beanType, @Nonnull final String beanName) {
-        if (beanType != null) {
-            InjectionMetadata metadata = findAutowiringMetadata(beanType);
-            metadata.checkConfigMembers(beanDefinition);
+    @Nonnull
+    private String getCacheConfiguration() {
+        StringBuilder sb = new StringBuilder();
+        for (Class<? extends Annotation> type : this.autowiredAnnotationTypes) {
+            sb.append(type.getName()).append(',');
         }
+        sb.append(this.requiredParameterName).append('=').append(this.requiredParameterValue);
+        sb.append(',').append(getClass().getName());
+        return sb.toString();
     }
 
     /**
-     * {@inheritDoc}
+     * Gets the on-disk cache of reflection results.
+     * @return Returns the cache, or <code>null</code> if disabled.
      */
-    @Override
-    @Nonnull
-    public Constructor<?>[] determineCandidateConstructors(@Nonnull final Class<?> beanClass,
-                                                           @Nonnull final String beanName) throws BeansException {
-        // Quick check on the concurrent map first, with minimal locking.
-        Constructor<?>[] candidateConstructors = this.candidateConstructorsCache.get(beanClass);
-        if (candidateConstructors == null) {
-            synchronized (this.candidateConstructorsCache) {
-                candidateConstructors = this.candidateConstructorsCache.get(beanClass);
-                if (candidateConstructors == null) {
-                    Constructor<?>[] rawCandidates = beanClass.getDeclaredConstructors();
-                    List<Constructor<?>> candidates = new ArrayList<Constructor<?>>(rawCandidates.length);
-                    Constructor<?> requiredConstructor = null;
-                    Constructor<?> defaultConstructor = null;
-                    for (Constructor<?> candidate : rawCandidates) {
-                        Annotation annotation = findAutowiredAnnotation(candidate);
-                        if (annotation != null) {
-                            if (requiredConstructor != null) {
-                                throw new BeanCreationException("Invalid autowire-marked constructor: " + candidate
-                                        + ". Found another constructor with 'required' Autowired annotation: "
-                                        + requiredConstructor);
-                            }
-                            if (candidate.getParameterTypes().length == 0) {
-                                throw new IllegalStateException("Autowired annotation requires at least one argument: "
-                                        + candidate);
-                            }
-                            boolean required = determineRequiredStatus(annotation);
-                            if (required) {
-                                if (!candidates.isEmpty()) {
-                                    throw new BeanCreationException("Invalid autowire-marked constructors: "
-                                            + candidates
-                                            + ". Found another constructor with 'required' Autowired annotation: "
-                                            + requiredConstructor);
-                                }
-                                requiredConstructor = candidate;
-                            }
-                            candidates.add(candidate);
-                        } else if (candidate.getParameterTypes().length == 0) {
-                            defaultConstructor = candidate;
-                        }
-                    }
-                    if (!candidates.isEmpty()) {
-                        // Add default constructor to list of optional constructors, as fallback.
-                        if (requiredConstructor == null && defaultConstructor != null) {
-                            candidates.add(defaultConstructor);
-                        }
-                        candidateConstructors = candidates.toArray(new Constructor[candidates.size()]);
-                    } else {
-                        candidateConstructors = new Constructor[0];
-                    }
-                    this.candidateConstructorsCache.put(beanClass, candidateConstructors);
-                }
-            }
-        }
-        Constructor<?>[] cotrs = (candidateConstructors.length > 0 ? candidateConstructors : null);
-        if (cotrs != null) {
-            // find default implementation on all constructor canditates
-            Set<String> autowiredBeanNames = new LinkedHashSet<String>(1);
-            TypeConverter typeConverter = beanFactory.getTypeConverter();
-            for (Constructor<?> constructor : cotrs) {
-                Class<?>[] paramTypes = constructor.getParameterTypes();
-                for (int i = 0; i < paramTypes.length; i++) {
-                    Annotation annot = findImplementedByAnnotation(paramTypes[i]);
-                    if (annot != null) {
-                        MethodParameter param = MethodParameter.forMethodOrConstructor(constructor, i);
-                        DependencyDescriptor descriptor = new DependencyDescriptor(param, false);
-                        autowiredBeanNames.clear();
-                        resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
-                    }
-                }
-            }
-        }
-        return cotrs;
+    @Nullable
+    WarmStartCache getWarmStartCache() {
+        return this.warmStartCache;
     }
 
     /**
-     * {@inheritDoc}
+     * Builds in parallel the injection metadata and candidate constructors of all bean classes
+     * of the factory, waits for completion.
      */
-    @Override
-    @Nonnull
-    public PropertyValues postProcessPropertyValues(@Nonnull final PropertyValues pvs,
-                                                    @Nonnull final PropertyDescriptor[] pds,
-                                                    @Nonnull final Object bean, @Nonnull final String beanName)
-            throws BeansException {
+    private void prewarmCaches() {
+        final List<String> classNames = collectBeanClassNames();
+        if (classNames.isEmpty()) {
+            return;
+        }
+        final ClassLoader classLoader = this.beanFactory.getBeanClassLoader();
+        final AtomicInteger next = new AtomicInteger();
+        int threads = Math.min(this.prewarmThreads, classNames.size());
+        List<Callable<Object>> workers = new ArrayList<Callable<Object>>(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Callable<Object>() {
 
-        InjectionMetadata metadata = findAutowiringMetadata(bean.getClass());
+                @Override
+                public Object call() {
+                    // workers share the list, a fast worker takes more classes.
+                    for (int index = next.getAndIncrement(); index < classNames.size(); index =
+                            next.getAndIncrement()) {
+                        prewarmCaches(classNames.get(index), classLoader);
+                    }
+                    return null;
+                }
+            });
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("implementedby-prewarm-");
+        threadFactory.setDaemon(true);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+        long startTime = System.currentTimeMillis();
         try {
-            metadata.inject(bean, beanName, pvs);
-        } catch (Throwable ex) {
-            throw new BeanCreationException(beanName, "Injection of autowired dependencies failed", ex);
+            executor.invokeAll(workers);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Prewarmed injection metadata of " + classNames.size() + " classes in "
+                    + (System.currentTimeMillis() - startTime) + " ms with " + threads + " threads");
         }
-        return pvs;
     }
 
     /**
-     * 'Native' processing method for direct calls with an arbitrary target instance,
-     * resolving all of its fields and methods which are annotated with <code>@Autowired</code>.
-     * @param bean the target instance to process
-     * @throws BeansException if autowiring failed
+     * Builds the injection metadata and candidate constructors of a bean class.
+     * @param className the name of bean class
+     * @param classLoader the class loader of bean class
      */
-    public void processInjection(@Nonnull final Object bean) throws BeansException {
-        Class<?> clazz = bean.getClass();
-        InjectionMetadata metadata = findAutowiringMetadata(clazz);
+    private void prewarmCaches(@Nonnull final String className, @Nullable final ClassLoader classLoader) {
         try {
-            metadata.inject(bean, null, null);
+            Class<?> clazz = ClassUtils.forName(className, classLoader);
+            this.injectionMetadataCache.get(clazz);
+            this.candidateConstructorsCache.get(clazz);
         } catch (Throwable ex) {
-            throw new BeanCreationException("Injection of autowired dependencies failed for class [" + clazz + "]", ex);
+            // reported when the bean is created - simply skip.
+            if (logger.isDebugEnabled()) {
+                logger.debug("Unable to prewarm injection metadata of " + className, ex);
+            }
         }
     }
 
     /**
-     * Finds autowiring injection metedata.
-     * @param clazz the class 
-     * @return Reeturn autowiring injection metedata.
+     * Collects the distinct classes of bean definitions whose instances are created by constructor.
+     * @return Returns the names of bean classes.
      */
     @Nonnull
-    private InjectionMetadata findAutowiringMetadata(@Nonnull final Class<?> clazz) {
-        // Quick check on the concurrent map first, with minimal locking.
-        InjectionMetadata metadata = this.injectionMetadataCache.get(clazz);
-        if (metadata == null) {
-            synchronized (this.injectionMetadataCache) {
-                metadata = this.injectionMetadataCache.get(clazz);
-                if (metadata == null) {
-                    metadata = buildAutowiringMetadata(clazz);
-                    this.injectionMetadataCache.put(clazz, metadata);
-                }
+    private List<String> collectBeanClassNames() {
+        Set<String> classNames = new LinkedHashSet<String>();
+        for (String beanName : this.beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition;
+            try {
+                definition = this.beanFactory.getMergedBeanDefinition(beanName);
+            } catch (BeansException ex) {
+                // reported when the bean is created - simply skip.
+                continue;
+            }
+            if (definition.isAbstract() || definition.getFactoryMethodName() != null
+                    || definition.getBeanClassName() == null) {
+                continue;
+            }
+            if (definition instanceof AbstractBeanDefinition && ((AbstractBeanDefinition) definition).hasBeanClass()) {
+                classNames.add(((AbstractBeanDefinition) definition).getBeanClass().getName());
+            } else {
+                classNames.add(definition.getBeanClassName());
             }
         }
-        return metadata;
+        return new ArrayList<String>(classNames);
     }
 
     /**
-     * Finds the annotation {@link ImplementedBy} on class.
-     * @param type a class
-     * @return Returns the annotatio if exists
+     * Registers the statistics MBean on the platform MBean server, logs a warning on failure.
      */
-    @Nullable
-    private Annotation findImplementedByAnnotation(@Nonnull final Class<?> type) {
-        return type.getAnnotation(implementedByAnnotationType);
+    private void registerStatisticsMBean() {
+        try {
+            ObjectName name =
+                    new ObjectName(STATISTICS_DOMAIN + ":type=InjectionStatistics,identity="
+                            + Integer.toHexString(System.identityHashCode(this)));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this.statistics, name);
+            this.statisticsObjectName = name;
+        } catch (JMException ex) {
+            logger.warn("Unable to register injection statistics MBean", ex);
+        }
     }
 
     /**
-     * Build injection metadata.
-     * @param clazz a class
-     * @return Returns the injection metadata.
+     * Unregisters the statistics MBean if registered, logs a warning on failure.
      */
-    private InjectionMetadata buildAutowiringMetadata(final Class<?> clazz) {
-        LinkedList<InjectionMetadata.InjectedElement> elements = new LinkedList<InjectionMetadata.InjectedElement>();
-        Class<?> targetClass = clazz;
+    private void unregisterStatisticsMBean() {
+        if (this.statisticsObjectName != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                server.unregisterMBean(this.statisticsObjectName);
+            } catch (JMException ex) {
+                logger.warn("Unable to unregister injection statistics MBean", ex);
+            }
+            this.statisticsObjectName = null;
+        }
+    }
 
-        do {
-            LinkedList<InjectionMetadata.InjectedElement> currElements =
-                    new LinkedList<InjectionMetadata.InjectedElement>();
-            for (Field field : targetClass.getDeclaredFields()) {
-                Annotation annotation = findAutowiredAnnotation(field);
-                if (annotation != null) {
-                    if (Modifier.isStatic(field.getModifiers())) {
-                        if (logger.isWarnEnabled()) {
-                            logger.warn("Autowired annotation is not supported on static fields: " + field);
-                        }
-                        continue;
+    /**
+     * Writes the startup trace at the end of the refresh of the application context owning the factory, and drops
+     * the pooled type converters which may predate the final configuration of the factory.
+     * @param event the refresh event, also published for child contexts
+     */
+    @Override
+    public void onApplicationEvent(@Nonnull final ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getAutowireCapableBeanFactory() == this.beanFactory) {
+            clearTypeConverters();
+            writeTrace();
+        }
+    }
+
+    /**
+     * Writes the startup trace if not yet written and stops the recording, logs a warning on failure.
+     */
+    private void writeTrace() {
+        InjectionTrace trace = this.injectionTrace;
+        if (trace == null) {
+            return;
+        }
+        this.injectionTrace = null;
+        try {
+            trace.write(this.traceFile);
+            if (logger.isInfoEnabled()) {
+                logger.info("Wrote " + trace.size() + " injection spans to " + this.traceFile);
+            }
+        } catch (IOException ex) {
+            logger.warn("Unable to write injection trace " + this.traceFile, ex);
+        }
+    }
+
+    /**
+     * Clears the caches, so a post-processor still referenced after the close of its factory
+     * does not retain classes.
+     */
+    @Override
+    public void destroy() {
+        writeTrace();
+        WarmStartCache cache = this.warmStartCache;
+        if (cache != null) {
+            try {
+                cache.save();
+            } catch (IOException ex) {
+                logger.warn("Unable to write injection metadata cache " + this.warmStartCacheFile, ex);
+            }
+        }
+        unregisterStatisticsMBean();
+        clearTypeConverters();
+        this.injectionMetadataCache.clear();
+        this.candidateConstructorsCache.clear();
+        this.declaredInjectionPoints.clear();
+        this.generatedInjectors.clear();
+        this.implementedByAnnotations.clear();
+        this.resolvedBeanNames.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void postProcessMergedBeanDefinition(@Nonnull final RootBeanDefinition beanDefinition,
+                                                @Nullable final Class<?> beanType, @Nonnull final String beanName) {
+        if (beanType != null) {
+            InjectionMetadata metadata = findAutowiringMetadata(beanType);
+            metadata.checkConfigMembers(beanDefinition);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public Constructor<?>[] determineCandidateConstructors(@Nonnull final Class<?> beanClass,
+                                                           @Nonnull final String beanName) throws BeansException {
+        CandidateConstructors candidateConstructors = this.candidateConstructorsCache.get(beanClass);
+        if (candidateConstructors.constructors.length == 0) {
+            return null;
+        }
+        if (!candidateConstructors.defaultsRegistered) {
+            // find default implementation on all constructor canditates, once per class
+            registerConstructorDefaults(candidateConstructors.constructors, beanName);
+            candidateConstructors.defaultsRegistered = true;
+        }
+        return candidateConstructors.constructors;
+    }
+
+    /**
+     * Registers the default implementation of all {@link ImplementedBy} parameters of constructors.
+     * @param constructors the candidate constructors
+     * @param beanName the name of bean
+     */
+    private void registerConstructorDefaults(@Nonnull final Constructor<?>[] constructors,
+                                             @Nonnull final String beanName) {
+        Set<String> autowiredBeanNames = new LinkedHashSet<String>(1);
+        TypeConverter typeConverter = borrowTypeConverter();
+        try {
+            for (Constructor<?> constructor : constructors) {
+                Class<?>[] paramTypes = constructor.getParameterTypes();
+                for (int i = 0; i < paramTypes.length; i++) {
+                    Annotation annot = findImplementedByAnnotation(paramTypes[i]);
+                    if (annot != null) {
+                        MethodParameter param = MethodParameter.forMethodOrConstructor(constructor, i);
+                        DependencyDescriptor descriptor = new DependencyDescriptor(param, false);
+                        autowiredBeanNames.clear();
+                        resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
                     }
-                    boolean required = determineRequiredStatus(annotation);
-                    currElements.add(new AutowiredFieldElement(field, required));
                 }
             }
-            for (Method method : targetClass.getDeclaredMethods()) {
-                Method bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
-                Annotation annotation = null;
-                if (BridgeMethodResolver.isVisibilityBridgeMethodPair(method, bridgedMethod)) {
-                    annotation = findAutowiredAnnotation(bridgedMethod);
-                } else {
-                    annotation = findAutowiredAnnotation(method);
+        } finally {
+            releaseTypeConverter(typeConverter);
+        }
+    }
+
+    /**
+     * Borrows a type converter of the factory, reused if available and the configuration of the factory is frozen.
+     * @return Returns a type converter, to release after use.
+     */
+    @Nonnull
+    private TypeConverter borrowTypeConverter() {
+        if (!beanFactory.isConfigurationFrozen()) {
+            // the conversion service and the custom editors can still change.
+            return beanFactory.getTypeConverter();
+        }
+        TypeConverter typeConverter = this.typeConverters.getAndSet(typeConverterSlot(), null);
+        return (typeConverter != null ? typeConverter : beanFactory.getTypeConverter());
+    }
+
+    /**
+     * Releases a borrowed type converter for reuse, if the configuration of the factory is frozen.
+     * @param typeConverter the borrowed type converter
+     */
+    private void releaseTypeConverter(@Nonnull final TypeConverter typeConverter) {
+        if (beanFactory.isConfigurationFrozen()) {
+            this.typeConverters.compareAndSet(typeConverterSlot(), null, typeConverter);
+        }
+    }
+
+    /**
+     * Drops the pooled type converters.
+     */
+    private void clearTypeConverters() {
+        for (int i = 0; i < TYPE_CONVERTER_SLOTS; i++) {
+            this.typeConverters.set(i, null);
+        }
+    }
+
+    /**
+     * @return Returns the slot of reusable type converter of the current thread.
+     */
+    private static int typeConverterSlot() {
+        return (int) Thread.currentThread().getId() & (TYPE_CONVERTER_SLOTS - 1);
+    }
+
+    /**
+     * Build the candidate constructors of class.
+     * @param beanClass a class
+     * @return Returns the candidate constructors, or an empty array if none.
+     */
+    @Nonnull
+    private Constructor<?>[] buildCandidateConstructors(@Nonnull final Class<?> beanClass) {
+        GeneratedInjector injector = findGeneratedInjector(beanClass);
+        if (injector != null) {
+            Constructor<?>[] constructors = restoreCandidateConstructors(beanClass, injector.getConstructors());
+            if (constructors != null) {
+                return constructors;
+            }
+        }
+        WarmStartCache cache = this.warmStartCache;
+        if (cache == null) {
+            return introspectCandidateConstructors(beanClass);
+        }
+        String[][] cachedParameterTypes = cache.getConstructors(beanClass.getName());
+        if (cachedParameterTypes != null) {
+            Constructor<?>[] constructors = restoreCandidateConstructors(beanClass, cachedParameterTypes);
+            if (constructors != null) {
+                return constructors;
+            }
+        }
+        Constructor<?>[] constructors = introspectCandidateConstructors(beanClass);
+        String[][] parameterTypes = new String[constructors.length][];
+        for (int i = 0; i < constructors.length; i++) {
+            parameterTypes[i] = WarmStartCache.getNames(constructors[i].getParameterTypes());
+        }
+        cache.putConstructors(beanClass.getName(), parameterTypes);
+        return constructors;
+    }
+
+    /**
+     * Restores the candidate constructors of class from the warm-start cache.
+     * @param beanClass a class
+     * @param parameterTypes the parameter types of each candidate constructor
+     * @return Returns the candidate constructors, or <code>null</code> if they no longer match the class.
+     */
+    @Nullable
+    private Constructor<?>[] restoreCandidateConstructors(@Nonnull final Class<?> beanClass,
+                                                          @Nonnull final String[][] parameterTypes) {
+        try {
+            Constructor<?>[] constructors = new Constructor<?>[parameterTypes.length];
+            for (int i = 0; i < constructors.length; i++) {
+                constructors[i] =
+                        beanClass.getDeclaredConstructor(resolveClassNames(parameterTypes[i],
+                            beanClass.getClassLoader()));
+            }
+            return constructors;
+        } catch (Exception ex) {
+            logger.debug("Cached candidate constructors of " + beanClass + " are stale", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Resolves class names.
+     * @param classNames the class names
+     * @param classLoader the class loader to use
+     * @return Returns the classes.
+     * @throws ClassNotFoundException if a class can not be found
+     */
+    @Nonnull
+    private static Class<?>[] resolveClassNames(@Nonnull final String[] classNames,
+                                                @Nullable final ClassLoader classLoader) throws ClassNotFoundException {
+        Class<?>[] classes = new Class<?>[classNames.length];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = ClassUtils.forName(classNames[i], classLoader);
+        }
+        return classes;
+    }
+
+    /**
+     * Introspects the candidate constructors of class.
+     * @param beanClass a class
+     * @return Returns the candidate constructors, or an empty array if none.
+     */
+    @Nonnull
+    private Constructor<?>[] introspectCandidateConstructors(@Nonnull final Class<?> beanClass) {
+        Constructor<?>[] rawCandidates = beanClass.getDeclaredConstructors();
+        List<Constructor<?>> candidates = new ArrayList<Constructor<?>>(rawCandidates.length);
+        Constructor<?> requiredConstructor = null;
+        Constructor<?> defaultConstructor = null;
+        for (Constructor<?> candidate : rawCandidates) {
+            Annotation annotation = findAutowiredAnnotation(candidate);
+            if (annotation != null) {
+                if (requiredConstructor != null) {
+                    throw new BeanCreationException("Invalid autowire-marked constructor: " + candidate
+                            + ". Found another constructor with 'required' Autowired annotation: "
+                            + requiredConstructor);
                 }
-                if (annotation != null && method.equals(ClassUtils.getMostSpecificMethod(method, clazz))) {
-                    if (Modifier.isStatic(method.getModifiers())) {
-                        if (logger.isWarnEnabled()) {
-                            logger.warn("Autowired annotation is not supported on static methods: " + method);
-                        }
-                        continue;
-                    }
-                    if (method.getParameterTypes().length == 0) {
-                        if (logger.isWarnEnabled()) {
-                            logger.warn("Autowired annotation should be used on methods with actual parameters: "
-                                    + method);
-                        }
+                if (candidate.getParameterTypes().length == 0) {
+                    throw new IllegalStateException("Autowired annotation requires at least one argument: "
+                            + candidate);
+                }
+                boolean required = determineRequiredStatus(annotation);
+                if (required) {
+                    if (!candidates.isEmpty()) {
+                        throw new BeanCreationException("Invalid autowire-marked constructors: "
+                                + candidates
+                                + ". Found another constructor with 'required' Autowired annotation: "
+                                + requiredConstructor);
                     }
-                    boolean required = determineRequiredStatus(annotation);
-                    PropertyDescriptor pd = BeanUtils.findPropertyForMethod(method);
-                    currElements.add(new AutowiredMethodElement(method, required, pd));
+                    requiredConstructor = candidate;
                 }
+                candidates.add(candidate);
+            } else if (candidate.getParameterTypes().length == 0) {
+                defaultConstructor = candidate;
             }
-            elements.addAll(0, currElements);
-            targetClass = targetClass.getSuperclass();
-        } while (targetClass != null && targetClass != Object.class);
+        }
+        if (!candidates.isEmpty()) {
+            // Add default constructor to list of optional constructors, as fallback.
+            if (requiredConstructor == null && defaultConstructor != null) {
+                candidates.add(defaultConstructor);
+            }
+            return candidates.toArray(new Constructor[candidates.size()]);
+        }
+        return new Constructor[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nonnull
+    public PropertyValues postProcessPropertyValues(@Nonnull final PropertyValues pvs,
+                                                    @Nonnull final PropertyDescriptor[] pds,
+                                                    @Nonnull final Object bean, @Nonnull final String beanName)
+            throws BeansException {
 
-        return new InjectionMetadata(clazz, elements);
+        InjectionMetadata metadata = findAutowiringMetadata(bean.getClass());
+        InjectionStatistics stats = this.statistics;
+        InjectionTrace trace = this.injectionTrace;
+        InjectionEvents events = this.injectionEvents;
+        Object event = (events != null ? events.beginInjection() : null);
+        long startTime = (stats != null || trace != null ? System.nanoTime() : 0L);
+        try {
+            metadata.inject(bean, beanName, pvs);
+        } catch (Throwable ex) {
+            throw new BeanCreationException(beanName, "Injection of autowired dependencies failed", ex);
+        }
+        if (stats != null) {
+            stats.beanInjected(startTime);
+        }
+        if (trace != null) {
+            trace.record(InjectionTrace.INJECTION, beanName, startTime);
+        }
+        if (event != null) {
+            events.endInjection(event, bean.getClass(), beanName);
+        }
+        return pvs;
     }
 
     /**
-     * Finds autowired annotation on accessible object {@link AccessibleObject}.
-     * @param ao a accessible object.
-     * @return Returns finded autowired annotation
+     * 'Native' processing method for direct calls with an arbitrary target instance,
+     * resolving all of its fields and methods which are annotated with <code>@Autowired</code>.
+     * @param bean the target instance to process
+     * @throws BeansException if autowiring failed
+     */
+    public void processInjection(@Nonnull final Object bean) throws BeansException {
+        Class<?> clazz = bean.getClass();
+        InjectionMetadata metadata = findAutowiringMetadata(clazz);
+        InjectionStatistics stats = this.statistics;
+        InjectionTrace trace = this.injectionTrace;
+        InjectionEvents events = this.injectionEvents;
+        Object event = (events != null ? events.beginInjection() : null);
+        long startTime = (stats != null || trace != null ? System.nanoTime() : 0L);
+        try {
+            metadata.inject(bean, null, null);
+        } catch (Throwable ex) {
+            throw new BeanCreationException("Injection of autowired dependencies failed for class [" + clazz + "]", ex);
+        }
+        if (stats != null) {
+            stats.beanInjected(startTime);
+        }
+        if (trace != null) {
+            trace.record(InjectionTrace.INJECTION, clazz.getName(), startTime);
+        }
+        if (event != null) {
+            events.endInjection(event, clazz, null);
+        }
+    }
+
+    /**
+     * Finds autowiring injection metedata.
+     * @param clazz the class 
+     * @return Reeturn autowiring injection metedata.
+     */
+    @Nonnull
+    private InjectionMetadata findAutowiringMetadata(@Nonnull final Class<?> clazz) {
+        InjectionStatistics stats = this.statistics;
+        if (stats != null) {
+            stats.metadataLookup();
+        }
+        return this.injectionMetadataCache.get(clazz);
+    }
+
+    /**
+     * Gets the number of classes whose injection metadata is cached.
+     * @return Returns the number of classes whose injection metadata is cached.
+     */
+    int getMetadataCacheSize() {
+        return this.injectionMetadataCache.size();
+    }
+
+    /**
+     * Finds the annotation {@link ImplementedBy} on class.
+     * <p>Primitives, arrays and types of JDK packages are skipped, the result of other classes is memoized, either
+     * present or absent.</p>
+     * @param type a class
+     * @return Returns the annotatio if exists
      */
     @Nullable
-    private Annotation findAutowiredAnnotation(@Nonnull final AccessibleObject ao) {
-        for (Class<? extends Annotation> type : this.autowiredAnnotationTypes) {
-            Annotation annotation = ao.getAnnotation(type);
-            if (annotation != null) {
-                return annotation;
+    private Annotation findImplementedByAnnotation(@Nonnull final Class<?> type) {
+        InjectionStatistics stats = this.statistics;
+        if (stats != null) {
+            stats.implementedByLookup();
+        }
+        if (type.isPrimitive() || type.isArray() || isSkippedPackage(type.getName())) {
+            return null;
+        }
+        Object annotation = this.implementedByAnnotations.get(type);
+        return (annotation != NO_VALUE ? (Annotation) annotation : null);
+    }
+
+    /**
+     * Indicates whether the class belongs to a package whose types never carry {@link ImplementedBy}.
+     * @param className the name of class
+     * @return Returns <code>true</code> if the class is in a skipped package.
+     */
+    private static boolean isSkippedPackage(@Nonnull final String className) {
+        for (String prefix : SKIPPED_PACKAGE_PREFIXES) {
+            if (className.startsWith(prefix)) {
+                return true;
             }
         }
-        return null;
+        return false;
     }
 
     /**
-     * Obtains all beans of the given type as autowire candidates.
-     * @param type the type of the bean
-     * @return the target beans, or an empty Collection if no bean of this type is found
-     * @throws BeansException if bean retrieval failed
-     * @param <T> type of candidate class.
+     * Looks up the annotation {@link ImplementedBy} on class, using the binding index or the warm-start cache
+     * if enabled.
+     * <p>With the binding index, the binding of an indexed type is built from its index entry without reading
+     * the annotations of type, and types missing from the index are not annotated.</p>
+     * @param type a class
+     * @return Returns the annotation if exists
+     */
+    @Nullable
+    private Annotation lookupImplementedByAnnotation(@Nonnull final Class<?> type) {
+        if (this.useBindingIndex) {
+            try {
+                return getBindingIndex().getBinding(type);
+            } catch (ClassNotFoundException ex) {
+                throw new IllegalStateException("Default implementation of " + type.getName() + " indexed in "
+                        + ImplementedByIndex.INDEX_LOCATION + " not found", ex);
+            }
+        }
+        WarmStartCache cache = this.warmStartCache;
+        if (cache == null) {
+            implementedByReflection();
+            return type.getAnnotation(implementedByAnnotationType);
+        }
+        Boolean implementedBy = cache.isImplementedBy(type.getName());
+        if (Boolean.FALSE.equals(implementedBy)) {
+            return null;
+        }
+        implementedByReflection();
+        Annotation annotation = type.getAnnotation(implementedByAnnotationType);
+        if (implementedBy == null) {
+            cache.putImplementedBy(type.getName(), annotation != null);
+        }
+        return annotation;
+    }
+
+    /**
+     * Gets the index of {@link ImplementedBy} bindings, loads it with the bean class loader if necessary.
+     * @return Returns the index of {@link ImplementedBy} bindings.
      */
     @Nonnull
-    protected <T> Map<String, T> findAutowireCandidates(final Class<T> type) throws BeansException {
-        if (this.beanFactory == null) {
-            throw new IllegalStateException("No BeanFactory configured - "
-                    + "override the getBeanOfType method or specify the 'beanFactory' property");
+    private ImplementedByIndex getBindingIndex() {
+        ImplementedByIndex index = this.bindingIndex;
+        if (index == null) {
+            index = ImplementedByIndex.load(beanFactory.getBeanClassLoader());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Loaded " + index.size() + " @ImplementedBy bindings from "
+                        + ImplementedByIndex.INDEX_LOCATION);
+            }
+            this.bindingIndex = index;
         }
-        return BeanFactoryUtils.beansOfTypeIncludingAncestors(this.beanFactory, type);
+        return index;
     }
 
     /**
-     * Determines if the annotated field or method requires its dependency.
-     * <p>A 'required' dependency means that autowiring should fail when no beans
-     * are found. Otherwise, the autowiring process will simply bypass the field
-     * or method when no beans are found.
-     * @param annotation the Autowired annotation
-     * @return whether the annotation indicates that a dependency is required
+     * Gets the injection metadata of a class, shared by all classes without injected element.
+     * @param clazz a class
+     * @return Returns the injection metadata of class.
      */
-    protected boolean determineRequiredStatus(final Annotation annotation) {
-        try {
-            Method method = ReflectionUtils.findMethod(annotation.annotationType(), this.requiredParameterName);
-            return (this.requiredParameterValue == (Boolean) ReflectionUtils.invokeMethod(method, annotation));
-        } catch (Exception ex) {
-            // required by default
-            return true;
+    @Nonnull
+    InjectionMetadata getInjectionMetadata(@Nonnull final Class<?> clazz) {
+        return findAutowiringMetadata(clazz);
+    }
+
+    /**
+     * Build injection metadata.
+     * @param clazz a class
+     * @return Returns the injection metadata.
+     */
+    private InjectionMetadata buildAutowiringMetadata(final Class<?> clazz) {
+        GeneratedInjector injector = findGeneratedInjector(clazz);
+        if (injector != null) {
+            InjectionMetadata.InjectedElement[] elements = restoreAutowiringElements(clazz, injector.getMembers());
+            if (elements != null) {
+                for (int i = 0; i < elements.length; i++) {
+                    if (injector.isGenerated(i)) {
+                        ((CachingInjectedElement) elements[i]).useInjector(injector, i);
+                    }
+                }
+                return createInjectionMetadata(clazz, elements);
+            }
+        }
+        WarmStartCache cache = this.warmStartCache;
+        if (cache == null) {
+            return createInjectionMetadata(clazz, introspectAutowiringElements(clazz));
+        }
+        WarmStartCache.Member[] cachedMembers = cache.getMembers(clazz.getName());
+        if (cachedMembers != null) {
+            InjectionMetadata.InjectedElement[] elements = restoreAutowiringElements(clazz, cachedMembers);
+            if (elements != null) {
+                return createInjectionMetadata(clazz, elements);
+            }
+        }
+        InjectionMetadata.InjectedElement[] elements = introspectAutowiringElements(clazz);
+        cache.putMembers(clazz.getName(), toMembers(elements));
+        return createInjectionMetadata(clazz, elements);
+    }
+
+    /**
+     * Describes injected elements, as stored in the warm-start cache or in generated injectors.
+     * @param elements the injected elements
+     * @return Returns the description of injected elements.
+     */
+    @Nonnull
+    static WarmStartCache.Member[] toMembers(@Nonnull final InjectionMetadata.InjectedElement[] elements) {
+        WarmStartCache.Member[] members = new WarmStartCache.Member[elements.length];
+        int i = 0;
+        for (InjectionMetadata.InjectedElement element : elements) {
+            if (element instanceof AutowiredFieldElement) {
+                Field field = (Field) element.getMember();
+                members[i++] =
+                        new WarmStartCache.Member(field.getDeclaringClass().getName(), field.getName(),
+                                ((AutowiredFieldElement) element).required);
+            } else {
+                Method method = (Method) element.getMember();
+                members[i++] =
+                        new WarmStartCache.Member(method.getDeclaringClass().getName(), method.getName(),
+                                WarmStartCache.getNames(method.getParameterTypes()),
+                                ((AutowiredMethodElement) element).required,
+                                ((AutowiredMethodElement) element).hasPropertyDescriptor());
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Introspects the injection points of a class, for the generation of its injector.
+     * @param clazz a class
+     * @return Returns the injected elements of class, in injection order.
+     */
+    @Nonnull
+    InjectionMetadata.InjectedElement[] introspectElements(@Nonnull final Class<?> clazz) {
+        return introspectAutowiringElements(clazz);
+    }
+
+    /**
+     * Introspects the candidate constructors of a class, for the generation of its injector.
+     * @param beanClass a class
+     * @return Returns the candidate constructors, or an empty array if none.
+     */
+    @Nonnull
+    Constructor<?>[] introspectConstructors(@Nonnull final Class<?> beanClass) {
+        return introspectCandidateConstructors(beanClass);
+    }
+
+    /**
+     * Indicates whether the injection of a class uses its generated injector.
+     * @param clazz a class
+     * @return Returns <code>true</code> if the class has a generated injector and injectors are enabled.
+     */
+    boolean hasGeneratedInjector(@Nonnull final Class<?> clazz) {
+        return findGeneratedInjector(clazz) != null;
+    }
+
+    /**
+     * Finds the injector generated at build time for a class.
+     * @param clazz a class
+     * @return Returns the generated injector, or <code>null</code> if none or disabled.
+     */
+    @Nullable
+    private GeneratedInjector findGeneratedInjector(@Nonnull final Class<?> clazz) {
+        if (!this.useGeneratedInjectors) {
+            return null;
+        }
+        Object injector = this.generatedInjectors.get(clazz);
+        return (injector != NO_VALUE ? (GeneratedInjector) injector : null);
+    }
+
+    /**
+     * Loads and creates the injector generated for a class.
+     * @param clazz a class
+     * @return Returns a new generated injector, or <code>null</code> if none.
+     */
+    @Nullable
+    private GeneratedInjector loadGeneratedInjector(@Nonnull final Class<?> clazz) {
+        String injectorName = clazz.getName() + GeneratedInjector.SUFFIX;
+        ClassLoader classLoader = clazz.getClassLoader();
+        if (!ClassUtils.isPresent(injectorName, classLoader)) {
+            return null;
+        }
+        GeneratedInjector injector;
+        try {
+            Class<?> injectorClass = ClassUtils.forName(injectorName, classLoader);
+            injector = (GeneratedInjector) BeanUtils.instantiateClass(injectorClass);
+        } catch (Exception ex) {
+            logger.warn("Unable to create generated injector " + injectorName + ", falling back to reflection", ex);
+            return null;
+        }
+        if (!injector.getFingerprint().equals(fingerprintInjectionPoints(clazz))) {
+            logger.warn("Generated injector " + injectorName + " is stale, falling back to reflection");
+            return null;
+        }
+        return injector;
+    }
+
+    /**
+     * Computes the fingerprint of the annotated members of a class, stored in its generated injector.
+     * <p>It covers the autowired fields and methods of class and superclasses, with their required status, and
+     * the declared constructors, with the required status of autowired ones.</p>
+     * @param clazz a class
+     * @return Returns the fingerprint of annotated members.
+     */
+    @Nonnull
+    String fingerprintInjectionPoints(@Nonnull final Class<?> clazz) {
+        StringBuilder sb = new StringBuilder(256);
+        for (Class<?> targetClass = clazz; targetClass != null && targetClass != Object.class;
+                targetClass = targetClass.getSuperclass()) {
+            DeclaredInjectionPoints points = this.declaredInjectionPoints.get(targetClass);
+            for (int i = 0; i < points.members.length; i++) {
+                sb.append(points.members[i]).append(points.required[i] ? "|required\n" : "|optional\n");
+            }
+        }
+        for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            Annotation annotation = findAutowiredAnnotation(constructor);
+            sb.append(constructor);
+            if (annotation != null) {
+                sb.append(determineRequiredStatus(annotation) ? "|required" : "|optional");
+            }
+            sb.append('\n');
+        }
+        try {
+            return DigestUtils.md5DigestAsHex(sb.toString().getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Creates the injection metadata of a class.
+     * @param clazz a class
+     * @param elements the injected elements, in injection order
+     * @return Returns the shared empty injection metadata if no injected element, otherwise a new one.
+     */
+    @Nonnull
+    private static InjectionMetadata createInjectionMetadata(
+            @Nonnull final Class<?> clazz, @Nonnull final InjectionMetadata.InjectedElement[] elements) {
+        if (elements.length == 0) {
+            return EMPTY_METADATA;
+        }
+        return new InjectionMetadata(clazz, Arrays.asList(elements));
+    }
+
+    /**
+     * Restores the injected elements of class from the warm-start cache.
+     * @param clazz a class
+     * @param members the cached injected members
+     * @return Returns the injected elements, or <code>null</code> if they no longer match the class.
+     */
+    @Nullable
+    private InjectionMetadata.InjectedElement[] restoreAutowiringElements(final Class<?> clazz,
+                                                                         final WarmStartCache.Member[] members) {
+        InjectionMetadata.InjectedElement[] elements = new InjectionMetadata.InjectedElement[members.length];
+        try {
+            for (int i = 0; i < members.length; i++) {
+                WarmStartCache.Member member = members[i];
+                Class<?> declaringClass = clazz;
+                while (!declaringClass.getName().equals(member.getDeclaringClass())) {
+                    declaringClass = declaringClass.getSuperclass();
+                    if (declaringClass == null) {
+                        throw new ClassNotFoundException(member.getDeclaringClass());
+                    }
+                }
+                if (member.isMethod()) {
+                    Method method =
+                            declaringClass.getDeclaredMethod(member.getName(),
+                                resolveClassNames(member.getParameterTypes(), clazz.getClassLoader()));
+                    PropertyDescriptor pd = (member.isProperty() ? BeanUtils.findPropertyForMethod(method) : null);
+                    elements[i] = new AutowiredMethodElement(method, member.isRequired(), pd);
+                } else {
+                    Field field = declaringClass.getDeclaredField(member.getName());
+                    elements[i] = new AutowiredFieldElement(field, member.isRequired());
+                }
+            }
+        } catch (Exception ex) {
+            logger.debug("Cached injection metadata of " + clazz + " is stale", ex);
+            return null;
+        }
+        return elements;
+    }
+
+    /**
+     * Introspects the injected elements of class.
+     * @param clazz a class
+     * @return Returns the injected elements, superclass elements first.
+     */
+    private InjectionMetadata.InjectedElement[] introspectAutowiringElements(final Class<?> clazz) {
+        // elements per class of hierarchy, from the class to its top superclass.
+        InjectionMetadata.InjectedElement[][] levels = null;
+        int[] counts = null;
+        int depth = 0;
+        int total = 0;
+        Class<?> targetClass = clazz;
+
+        do {
+            DeclaredInjectionPoints points = this.declaredInjectionPoints.get(targetClass);
+            Member[] members = points.members;
+            if (members.length > 0) {
+                InjectionMetadata.InjectedElement[] currElements =
+                        new InjectionMetadata.InjectedElement[members.length];
+                int count = 0;
+                for (int i = 0; i < members.length; i++) {
+                    // elements are created per class, as they cache the resolution of their dependencies.
+                    if (members[i] instanceof Field) {
+                        currElements[count++] = new AutowiredFieldElement((Field) members[i], points.required[i]);
+                    } else {
+                        Method method = (Method) members[i];
+                        if (method.equals(ClassUtils.getMostSpecificMethod(method, clazz))) {
+                            currElements[count++] =
+                                    new AutowiredMethodElement(method, points.required[i], points.descriptors[i]);
+                        }
+                    }
+                }
+                if (count > 0) {
+                    if (levels == null) {
+                        levels = new InjectionMetadata.InjectedElement[4][];
+                        counts = new int[4];
+                    } else if (depth == levels.length) {
+                        levels = Arrays.copyOf(levels, depth * 2);
+                        counts = Arrays.copyOf(counts, depth * 2);
+                    }
+                    levels[depth] = currElements;
+                    counts[depth++] = count;
+                    total += count;
+                }
+            }
+            targetClass = targetClass.getSuperclass();
+        } while (targetClass != null && targetClass != Object.class);
+
+        if (total == 0) {
+            return NO_ELEMENTS;
+        }
+        // elements of superclasses are injected first.
+        InjectionMetadata.InjectedElement[] elements = new InjectionMetadata.InjectedElement[total];
+        int offset = 0;
+        for (int i = depth - 1; i >= 0; i--) {
+            System.arraycopy(levels[i], 0, elements, offset, counts[i]);
+            offset += counts[i];
+        }
+        return elements;
+    }
+
+    /**
+     * Scans the fields and methods declared by a class for autowired annotations.
+     * @param declaringClass a class
+     * @return Returns the injection points declared by the class, superclasses excluded.
+     */
+    @Nonnull
+    private DeclaredInjectionPoints scanInjectionPoints(@Nonnull final Class<?> declaringClass) {
+        Field[] fields = declaringClass.getDeclaredFields();
+        Method[] methods = declaringClass.getDeclaredMethods();
+        Member[] members = null;
+        boolean[] required = null;
+        PropertyDescriptor[] descriptors = null;
+        int count = 0;
+        for (Field field : fields) {
+            Annotation annotation = findAutowiredAnnotation(field);
+            if (annotation != null) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn("Autowired annotation is not supported on static fields: " + field);
+                    }
+                    continue;
+                }
+                if (members == null) {
+                    members = new Member[fields.length + methods.length];
+                    required = new boolean[members.length];
+                    descriptors = new PropertyDescriptor[members.length];
+                }
+                members[count] = field;
+                required[count++] = determineRequiredStatus(annotation);
+            }
+        }
+        for (Method method : methods) {
+            Method bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
+            Annotation annotation = null;
+            if (BridgeMethodResolver.isVisibilityBridgeMethodPair(method, bridgedMethod)) {
+                annotation = findAutowiredAnnotation(bridgedMethod);
+            } else {
+                annotation = findAutowiredAnnotation(method);
+            }
+            if (annotation != null) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn("Autowired annotation is not supported on static methods: " + method);
+                    }
+                    continue;
+                }
+                if (method.getParameterTypes().length == 0) {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn("Autowired annotation should be used on methods with actual parameters: "
+                                + method);
+                    }
+                }
+                if (members == null) {
+                    members = new Member[methods.length];
+                    required = new boolean[members.length];
+                    descriptors = new PropertyDescriptor[members.length];
+                }
+                members[count] = method;
+                required[count] = determineRequiredStatus(annotation);
+                descriptors[count++] = BeanUtils.findPropertyForMethod(method);
+            }
+        }
+        if (count == 0) {
+            return DeclaredInjectionPoints.NONE;
+        }
+        return new DeclaredInjectionPoints(Arrays.copyOf(members, count), Arrays.copyOf(required, count),
+                Arrays.copyOf(descriptors, count));
+    }
+
+    /**
+     * Finds autowired annotation on accessible object {@link AccessibleObject}.
+     * <p>The annotations of member are read once, the first autowired annotation type configured wins
+     * if several are present.</p>
+     * @param ao a accessible object.
+     * @return Returns finded autowired annotation
+     */
+    @Nullable
+    private Annotation findAutowiredAnnotation(@Nonnull final AccessibleObject ao) {
+        Map<Class<? extends Annotation>, Integer> priorities = this.autowiredAnnotationPriorities;
+        Annotation found = null;
+        int foundPriority = Integer.MAX_VALUE;
+        for (Annotation annotation : ao.getDeclaredAnnotations()) {
+            Integer priority = priorities.get(annotation.annotationType());
+            if (priority != null && priority < foundPriority) {
+                found = annotation;
+                foundPriority = priority;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Obtains all beans of the given type as autowire candidates.
+     * @param type the type of the bean
+     * @return the target beans, or an empty Collection if no bean of this type is found
+     * @throws BeansException if bean retrieval failed
+     * @param <T> type of candidate class.
+     */
+    @Nonnull
+    protected <T> Map<String, T> findAutowireCandidates(final Class<T> type) throws BeansException {
+        if (this.beanFactory == null) {
+            throw new IllegalStateException("No BeanFactory configured - "
+                    + "override the getBeanOfType method or specify the 'beanFactory' property");
+        }
+        return BeanFactoryUtils.beansOfTypeIncludingAncestors(this.beanFactory, type);
+    }
+
+    /**
+     * Determines if the annotated field or method requires its dependency.
+     * <p>A 'required' dependency means that autowiring should fail when no beans
+     * are found. Otherwise, the autowiring process will simply bypass the field
+     * or method when no beans are found.
+     * @param annotation the Autowired annotation
+     * @return whether the annotation indicates that a dependency is required
+     */
+    protected boolean determineRequiredStatus(final Annotation annotation) {
+        Class<? extends Annotation> type = annotation.annotationType();
+        Object accessor = this.requiredAccessors.get(type);
+        if (accessor == null) {
+            accessor = findRequiredAccessor(type);
+            this.requiredAccessors.put(type, accessor);
+        }
+        if (accessor == NO_VALUE) {
+            // required by default
+            return true;
+        }
+        return (this.requiredParameterValue == (Boolean) ReflectionUtils.invokeMethod((Method) accessor, annotation));
+    }
+
+    /**
+     * Finds the required parameter of an annotation type.
+     * @param annotationType the annotation type
+     * @return Returns the accessor of required parameter, or {@link #NO_VALUE} if the annotation has no
+     *         boolean parameter of this name (e.g. {@link javax.inject.Inject}).
+     */
+    @Nonnull
+    private Object findRequiredAccessor(@Nonnull final Class<? extends Annotation> annotationType) {
+        Method method = ReflectionUtils.findMethod(annotationType, this.requiredParameterName);
+        if (method == null || (method.getReturnType() != boolean.class && method.getReturnType() != Boolean.class)) {
+            return NO_VALUE;
+        }
+        ReflectionUtils.makeAccessible(method);
+        return method;
+    }
+
+    /**
+     * Gets the default implementation class of annotation.
+     * @param annotation the annotation
+     * @return Returns the default implementation class of annotation.
+     */
+    protected Class<?> determineImplementedClass(@Nonnull final Annotation annotation) {
+        return ((ImplementedBy) annotation).value();
+    }
+
+    /**
+     * Indicates whether the default implementation of annotation is created on first use.
+     * @param annotation the annotation
+     * @return Returns <code>true</code> if the default implementation is lazy.
+     */
+    protected boolean determineLazy(@Nonnull final Annotation annotation) {
+        return this.lazyDefaults || ((ImplementedBy) annotation).lazy();
+    }
+
+    /**
+     * Gets the scope of the default implementation of annotation.
+     * @param annotation the annotation
+     * @return Returns the scope of the default implementation.
+     */
+    @Nonnull
+    protected ImplementedByScope determineScope(@Nonnull final Annotation annotation) {
+        return ((ImplementedBy) annotation).scope();
+    }
+
+    /**
+     * Registers the default implementation of an {@link ImplementedBy} type according to its scope and laziness.
+     * <p>Thread scoped, pooled and lazy defaults are registered behind a proxy, which requires the annotated
+     * type to be an interface. Otherwise, thread scoped and pooled defaults fall back to prototypes and lazy
+     * defaults are created eagerly.</p>
+     * @param declaredClass the {@link ImplementedBy} type
+     * @param clazz the default implementation
+     * @param name the name of default implementation bean
+     * @param annotation the annotation of type
+     * @return Returns the name of the registered autowire candidate.
+     */
+    @Nonnull
+    protected String registerDefaultBean(@Nonnull final Class<?> declaredClass, @Nonnull final Class<?> clazz,
+                                         @Nonnull final String name, @Nonnull final Annotation annotation) {
+        ImplementedByScope scope = determineScope(annotation);
+        boolean proxyable = declaredClass.isInterface();
+        if ((scope == ImplementedByScope.THREAD || scope == ImplementedByScope.POOLED) && !proxyable) {
+            logger.warn("Scope " + scope + " requires an interface, " + declaredClass
+                    + " default implementation registered as prototype");
+            scope = ImplementedByScope.PROTOTYPE;
+        }
+        switch (scope) {
+        case PROTOTYPE:
+            AbstractBeanDefinition beanDefinition = createBeanDefinition(clazz);
+            beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+            beanFactory.registerBeanDefinition(name, beanDefinition);
+            return name;
+        case THREAD:
+            registerProxiedBean(clazz, name, name + THREAD_PROXY_SUFFIX, BeanDefinition.SCOPE_PROTOTYPE,
+                BeanDefinitionBuilder.rootBeanDefinition(ThreadLocalTargetSource.class).getBeanDefinition());
+            return name + THREAD_PROXY_SUFFIX;
+        case POOLED:
+            registerProxiedBean(clazz, name, name + POOLED_PROXY_SUFFIX, BeanDefinition.SCOPE_PROTOTYPE,
+                BeanDefinitionBuilder.rootBeanDefinition(BoundedPoolTargetSource.class)
+                        .addPropertyValue("maxSize", ((ImplementedBy) annotation).maxPoolSize())
+                        .getBeanDefinition());
+            return name + POOLED_PROXY_SUFFIX;
+        default:
+            if (proxyable && determineLazy(annotation)) {
+                registerLazyBean(clazz, name, name + LAZY_PROXY_SUFFIX);
+                return name + LAZY_PROXY_SUFFIX;
+            }
+            registerBean(clazz, name);
+            return name;
+        }
+    }
+
+    /**
+     * Registers bean.
+     * @param clazz a class to register
+     * @param name the name of bean
+     * @return Returns the bean definition registered.
+     */
+    @Nonnull
+    protected BeanDefinition registerBean(@Nonnull final Class<?> clazz, @Nonnull final String name) {
+        BeanDefinition beanDefinition = createBeanDefinition(clazz);
+
+        // Create the bean - I'm using the class name as the bean name
+        beanFactory.registerBeanDefinition(name, beanDefinition);
+        return beanDefinition;
+    }
+
+    /**
+     * Registers a lazy bean behind a proxy creating it on first method call.
+     * <p>The bean itself is registered lazy-init and not autowire candidate, the proxy implementing
+     * all its interfaces is the autowire candidate.</p>
+     * @param clazz a class to register
+     * @param name the name of bean
+     * @param proxyName the name of proxy
+     * @return Returns the bean definition of proxy registered.
+     */
+    @Nonnull
+    protected BeanDefinition registerLazyBean(@Nonnull final Class<?> clazz, @Nonnull final String name,
+                                              @Nonnull final String proxyName) {
+        return registerProxiedBean(clazz, name, proxyName, BeanDefinition.SCOPE_SINGLETON,
+            BeanDefinitionBuilder.rootBeanDefinition(LazyInitTargetSource.class).getBeanDefinition());
+    }
+
+    /**
+     * Registers a bean behind a proxy getting the target instances from a target source.
+     * <p>The bean itself is registered lazy-init and not autowire candidate, the singleton proxy implementing
+     * all its interfaces is the autowire candidate.</p>
+     * @param clazz a class to register
+     * @param name the name of bean
+     * @param proxyName the name of proxy
+     * @param scope the scope of bean
+     * @param targetSource the definition of target source, the target bean name and class are set by this method
+     * @return Returns the bean definition of proxy registered.
+     */
+    @Nonnull
+    private BeanDefinition registerProxiedBean(@Nonnull final Class<?> clazz, @Nonnull final String name,
+                                               @Nonnull final String proxyName, @Nonnull final String scope,
+                                               @Nonnull final AbstractBeanDefinition targetSource) {
+        AbstractBeanDefinition beanDefinition = createBeanDefinition(clazz);
+        beanDefinition.setScope(scope);
+        beanDefinition.setLazyInit(true);
+        beanDefinition.setAutowireCandidate(false);
+        beanFactory.registerBeanDefinition(name, beanDefinition);
+
+        targetSource.getPropertyValues().add("targetBeanName", name).add("targetClass", clazz);
+        AbstractBeanDefinition proxyDefinition =
+                BeanDefinitionBuilder.rootBeanDefinition(ProxyFactoryBean.class)
+                        .addPropertyValue("proxyInterfaces", ClassUtils.getAllInterfacesForClass(clazz))
+                        .addPropertyValue("targetSource", targetSource).getBeanDefinition();
+        beanFactory.registerBeanDefinition(proxyName, proxyDefinition);
+        return proxyDefinition;
+    }
+
+    /**
+     * Creates the singleton bean definition of a default implementation.
+     * @param clazz the default implementation
+     * @return Returns a new bean definition.
+     */
+    @Nonnull
+    private AbstractBeanDefinition createBeanDefinition(@Nonnull final Class<?> clazz) {
+        String className = clazz.getCanonicalName();
+        // create the bean definition
+        AbstractBeanDefinition beanDefinition = null;
+        try {
+            beanDefinition = BeanDefinitionReaderUtils.createBeanDefinition(null, className, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        beanDefinition.setScope(BeanDefinition.SCOPE_SINGLETON);
+        return beanDefinition;
+    }
+
+    /**
+     * Register the specified bean as dependent on the autowired beans.
+     * @param beanName bean name.
+     * @param beanNames list of bean's name depending to the <code>beanname</code>.
+     */
+    private void registerDependentBeans(final String beanName, final Set<String> beanNames) {
+        if (beanName != null) {
+            for (String autowiredBeanName : beanNames) {
+                beanFactory.registerDependentBean(autowiredBeanName, beanName);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Autowiring by type from bean name '" + beanName + "' to bean named '"
+                            + autowiredBeanName + "'");
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolve the specified cached method argument or field value.
+     * @param beanName bean name
+     * @param cachedArgument the cached argument
+     * @return Returns the specified cached method argument or field value.
+     */
+    @Nullable
+    private Object resolvedCachedArgument(@Nonnull final String beanName, @Nullable final Object cachedArgument) {
+        if (cachedArgument instanceof DependencyDescriptor) {
+            DependencyDescriptor descriptor = (DependencyDescriptor) cachedArgument;
+            TypeConverter typeConverter = borrowTypeConverter();
+            try {
+                return beanFactory.resolveDependency(descriptor, beanName, null, typeConverter);
+            } finally {
+                releaseTypeConverter(typeConverter);
+            }
+        } else if (cachedArgument instanceof CachedSingleton) {
+            return ((CachedSingleton) cachedArgument).resolve();
+        } else if (cachedArgument instanceof RuntimeBeanReference) {
+            return beanFactory.getBean(((RuntimeBeanReference) cachedArgument).getBeanName());
+        } else {
+            return cachedArgument;
+        }
+    }
+
+    /**
+     * Creates the cached argument referencing an autowired bean.
+     * @param autowiredBeanName the name of autowired bean
+     * @return Returns a {@link CachedSingleton} if the bean is a singleton, otherwise a {@link RuntimeBeanReference}.
+     */
+    @Nonnull
+    private Object createBeanReference(@Nonnull final String autowiredBeanName) {
+        if (beanFactory.isSingleton(autowiredBeanName)) {
+            return new CachedSingleton(autowiredBeanName);
+        }
+        return new RuntimeBeanReference(autowiredBeanName);
+    }
+
+    /**
+     * Resolve the specified dependency against the beans defined in this factory.
+     * <p>The default implementation of an {@link ImplementedBy} type is registered before the resolution
+     * if the factory contains no autowire candidate, so that the resolution does not fail.</p>
+     * @param descriptor Resolve the specified dependency against the beans defined in this factory.
+     * @param beanName the name of the bean which declares the present dependency
+     * @param autowiredBeanNames a Set that all names of autowired beans (used for resolving the present dependency) 
+     * are supposed to be added to
+     * @param typeConverter the TypeConverter to use for populating arrays and collections
+     * @return Returns the resolved object, or null if none found
+     */
+    protected Object resolveDependency(@Nonnull final DependencyDescriptor descriptor, @Nonnull final String beanName,
+                                       @Nonnull final Set<String> autowiredBeanNames,
+                                       @Nonnull final TypeConverter typeConverter) {
+        InjectionStatistics stats = this.statistics;
+        InjectionTrace trace = this.injectionTrace;
+        InjectionEvents events = this.injectionEvents;
+        Object event = (events != null ? events.beginResolution() : null);
+        if (stats == null && trace == null && event == null) {
+            return doResolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
+        }
+        long startTime = System.nanoTime();
+        Object value = null;
+        Throwable failure = null;
+        try {
+            value = doResolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
+            return value;
+        } catch (RuntimeException ex) {
+            failure = ex;
+            throw ex;
+        } catch (Error ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            if (stats != null) {
+                stats.dependencyResolved(startTime);
+            }
+            if (trace != null) {
+                trace.record(InjectionTrace.RESOLUTION,
+                    descriptor.getDependencyType().getName() + " for " + beanName, startTime);
+            }
+            if (event != null) {
+                events.endResolution(event, descriptor.getDependencyType(), beanName, value, failure);
+            }
+        }
+    }
+
+    /**
+     * Resolve the specified dependency, see
+     * {@link #resolveDependency(DependencyDescriptor, String, Set, TypeConverter)}.
+     * <p>Once the configuration of the factory is frozen, an {@link ImplementedBy} dependency resolved to the single
+     * candidate bean is shared by all injection points of same type, generic declaration and annotations. The shared
+     * resolution is checked on each use without resolving the candidates again: the factory and its ancestors cache
+     * the bean names per type until a bean definition is registered, overridden or removed, so they must return the
+     * same arrays of names as when the single candidate was resolved.</p>
+     * @param descriptor the dependency
+     * @param beanName the name of the bean which declares the present dependency
+     * @param autowiredBeanNames a Set that all names of autowired beans are supposed to be added to
+     * @param typeConverter the TypeConverter to use for populating arrays and collections
+     * @return Returns the resolved object, or null if none found
+     */
+    private Object doResolveDependency(@Nonnull final DependencyDescriptor descriptor, @Nonnull final String beanName,
+                                       @Nonnull final Set<String> autowiredBeanNames,
+                                       @Nonnull final TypeConverter typeConverter) {
+        Class<?> dependencyType = descriptor.getDependencyType();
+        boolean implementedBy = findImplementedByAnnotation(dependencyType) != null;
+        if (!implementedBy) {
+            return resolveUncachedDependency(descriptor, beanName, autowiredBeanNames, typeConverter, false);
+        }
+        if (!this.shareResolutions || !beanFactory.isConfigurationFrozen()) {
+            // bean definitions are still being registered or post-processed.
+            return resolveUncachedDependency(descriptor, beanName, autowiredBeanNames, typeConverter, true);
+        }
+        ResolutionKey key = new ResolutionKey(descriptor);
+        ResolvedBeanName resolved = this.resolvedBeanNames.get(key);
+        if (resolved != null && !resolved.beanName.equals(beanName)
+                && hasSameCandidateNames(dependencyType, descriptor.isEager(), resolved.candidateNames)) {
+            autowiredBeanNames.add(resolved.beanName);
+            return beanFactory.getBean(resolved.beanName);
+        }
+        Set<String> names = new LinkedHashSet<String>(1);
+        Object value = resolveUncachedDependency(descriptor, beanName, names, typeConverter, true);
+        autowiredBeanNames.addAll(names);
+        if (value != null && names.size() == 1) {
+            String autowiredBeanName = names.iterator().next();
+            if (getRegistration(autowiredBeanName) != null && !autowiredBeanName.equals(beanName)) {
+                // taken before checking the candidates, a registration meanwhile invalidates the shared resolution.
+                ResolvedBeanName candidate = new ResolvedBeanName(autowiredBeanName,
+                        getCandidateNames(dependencyType, descriptor.isEager()));
+                // the outcome is shared only if no other candidate could be selected for another bean.
+                if (isSingleCandidate(dependencyType, descriptor.isEager(), autowiredBeanName)) {
+                    this.resolvedBeanNames.put(key, candidate);
+                } else {
+                    this.resolvedBeanNames.remove(key);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Indicates whether a dependency type has a resolved bean as single candidate.
+     * @param dependencyType the type of dependency
+     * @param eager indicating whether the dependency is eager
+     * @param resolvedBeanName the name of resolved bean
+     * @return Returns <code>true</code> if the resolved bean is the single candidate.
+     */
+    private boolean isSingleCandidate(@Nonnull final Class<?> dependencyType, final boolean eager,
+                                      @Nonnull final String resolvedBeanName) {
+        String[] candidateNames =
+                BeanFactoryUtils.beanNamesForTypeIncludingAncestors(beanFactory, dependencyType, true, eager);
+        return candidateNames.length == 1 && candidateNames[0].equals(resolvedBeanName);
+    }
+
+    /**
+     * Gets the bean names of a dependency type, in the factory and each of its ancestors.
+     * @param dependencyType the type of dependency
+     * @param eager indicating whether the dependency is eager
+     * @return Returns the arrays of bean names, from the factory to its root ancestor.
+     */
+    @Nonnull
+    private String[][] getCandidateNames(@Nonnull final Class<?> dependencyType, final boolean eager) {
+        List<String[]> candidateNames = new ArrayList<String[]>(2);
+        BeanFactory factory = beanFactory;
+        while (factory instanceof ListableBeanFactory) {
+            candidateNames.add(((ListableBeanFactory) factory).getBeanNamesForType(dependencyType, true, eager));
+            factory = (factory instanceof HierarchicalBeanFactory
+                    ? ((HierarchicalBeanFactory) factory).getParentBeanFactory() : null);
+        }
+        return candidateNames.toArray(new String[candidateNames.size()][]);
+    }
+
+    /**
+     * Indicates whether the factory and its ancestors return the same arrays of bean names of a dependency type,
+     * which they cache until a bean definition is registered, overridden or removed.
+     * @param dependencyType the type of dependency
+     * @param eager indicating whether the dependency is eager
+     * @param candidateNames the arrays of bean names returned when the dependency was resolved
+     * @return Returns <code>true</code> if each factory returns the same array as when the dependency was resolved.
+     */
+    private boolean hasSameCandidateNames(@Nonnull final Class<?> dependencyType, final boolean eager,
+                                          @Nonnull final String[][] candidateNames) {
+        BeanFactory factory = beanFactory;
+        int i = 0;
+        while (factory instanceof ListableBeanFactory) {
+            if (i == candidateNames.length
+                    || ((ListableBeanFactory) factory).getBeanNamesForType(dependencyType, true, eager)
+                    != candidateNames[i++]) {
+                return false;
+            }
+            factory = (factory instanceof HierarchicalBeanFactory
+                    ? ((HierarchicalBeanFactory) factory).getParentBeanFactory() : null);
+        }
+        return i == candidateNames.length;
+    }
+
+    /**
+     * Gets the registration of a bean: its merged bean definition, in the factory or its ancestors, or the
+     * singleton itself if registered without definition.
+     * @param name the name of bean
+     * @return Returns the registration of bean, or <code>null</code> if unknown.
+     */
+    @Nullable
+    private Object getRegistration(@Nonnull final String name) {
+        if (!beanFactory.containsBeanDefinition(name) && beanFactory.containsSingleton(name)) {
+            return beanFactory.getSingleton(name);
+        }
+        try {
+            return beanFactory.getMergedBeanDefinition(name);
+        } catch (NoSuchBeanDefinitionException ex) {
+            // singleton of an ancestor, or removed meanwhile.
+            return null;
+        }
+    }
+
+    /**
+     * Resolve the specified dependency, registering the default implementation of an {@link ImplementedBy}
+     * type if necessary.
+     * @param descriptor the descriptor for the dependency
+     * @param beanName the name of the bean which declares the present dependency
+     * @param autowiredBeanNames a Set that all names of autowired beans are supposed to be added to
+     * @param typeConverter the TypeConverter to use for populating arrays and collections
+     * @param implementedBy indicating whether the dependency type is annotated with {@link ImplementedBy}
+     * @return Returns the resolved object, or null if none found
+     */
+    @Nullable
+    private Object resolveUncachedDependency(@Nonnull final DependencyDescriptor descriptor,
+                                             @Nonnull final String beanName,
+                                             @Nonnull final Set<String> autowiredBeanNames,
+                                             @Nonnull final TypeConverter typeConverter,
+                                             final boolean implementedBy) {
+        Class<?> dependencyType = descriptor.getDependencyType();
+        if (implementedBy && !hasAutowireCandidate(descriptor)) {
+            registerDefaultDependency(dependencyType);
+            return beanFactory.resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
+        }
+        Object value = null;
+        try {
+            value = beanFactory.resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
+        } catch (BeansException ex) {
+            swallowedException();
+            if (implementedBy) {
+                this.resolutionFallbackCount.incrementAndGet();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Resolution of " + descriptor.getDependencyType()
+                            + " failed, falling back to its default implementation", ex);
+                }
+            }
+        }
+        if (value == null && implementedBy && registerDefaultDependency(dependencyType)) {
+            value = beanFactory.resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
+        }
+        return value;
+    }
+
+    /**
+     * Indicates whether the factory contains an autowire candidate for the dependency,
+     * the same way than the resolution of dependency selects the candidates.
+     * @param descriptor the dependency
+     * @return Returns <code>true</code> if at least one autowire candidate exists.
+     */
+    private boolean hasAutowireCandidate(@Nonnull final DependencyDescriptor descriptor) {
+        String[] candidateNames =
+                BeanFactoryUtils.beanNamesForTypeIncludingAncestors(beanFactory, descriptor.getDependencyType(), true,
+                    descriptor.isEager());
+        for (String candidateName : candidateNames) {
+            if (beanFactory.isAutowireCandidate(candidateName, descriptor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of dependencies of {@link ImplementedBy} type whose resolution failed with an exception
+     * before falling back to the default implementation.
+     * <p>This happens when autowire candidates exist but none can be resolved, e.g. several candidates.</p>
+     * @return Returns the number of resolutions falling back to the default implementation after an exception.
+     */
+    public long getResolutionFallbackCount() {
+        return this.resolutionFallbackCount.get();
+    }
+
+    /**
+     * Records an exception caught and ignored, if statistics are enabled.
+     */
+    private void swallowedException() {
+        InjectionStatistics stats = this.statistics;
+        if (stats != null) {
+            stats.exceptionSwallowed();
+        }
+    }
+
+    /**
+     * Records a lookup of {@link ImplementedBy} annotation reading the annotations of class, if statistics are
+     * enabled.
+     */
+    private void implementedByReflection() {
+        InjectionStatistics stats = this.statistics;
+        if (stats != null) {
+            stats.implementedByReflection();
+        }
+    }
+
+    /**
+     * Records the injection of an element through its generated injector, if statistics are enabled.
+     */
+    private void generatedInjection() {
+        InjectionStatistics stats = this.statistics;
+        if (stats != null) {
+            stats.generatedInjection();
+        }
+    }
+
+    /**
+     * Register the default implementation.
+     * <p>The bean definition is registered once per implementation class, even when it is shared by several types,
+     * and an existing definition with the same name is kept. A lazy default of an interface is registered behind a
+     * proxy, see {@link #registerDefaultBean(Class, Class, String, Annotation)}.</p>
+     * <p>The registration holds the singleton mutex of the bean factory, which the registration of a bean definition
+     * takes anyway and which threads creating singletons already hold: taking it first keeps the lock order of the
+     * factory, and concurrent callers never wait for another thread otherwise. This method is called only when the
+     * dependency has no candidate, so the lock is not taken once the default is registered.</p>
+     * <p>The factory clears its cache of bean names per type after a registration, without lock: a concurrent
+     * resolution, which read the bean definition names before the registration, may cache them afterwards and hide
+     * the default implementation. A caller finding no candidate of a registered default clears this cache again.</p>
+     * @param declaredClass the class
+     * @return Returns <code>true</code> if register the default implementation, otherwise <code>false</code>.
+     */
+    protected boolean registerDefaultDependency(@Nonnull final Class<?> declaredClass) {
+        Annotation annot = findImplementedByAnnotation(declaredClass);
+        if (annot == null) {
+            return false;
+        }
+        Class<?> implementedClass = determineImplementedClass(annot);
+        String name = implementedClass.getCanonicalName();
+        synchronized (singletonMutex) {
+            if (beanFactory.containsBeanDefinition(name)) {
+                // declared explicitly or already registered, but not found by the caller.
+                clearBeanNamesByType();
+                return true;
+            }
+            InjectionTrace trace = this.injectionTrace;
+            InjectionEvents events = this.injectionEvents;
+            Object event = (events != null ? events.beginDefaultRegistration() : null);
+            long startTime = (trace != null ? System.nanoTime() : 0L);
+            String candidateName = registerDefaultBean(declaredClass, implementedClass, name, annot);
+            InjectionStatistics stats = this.statistics;
+            if (stats != null) {
+                stats.defaultRegistered();
+            }
+            if (trace != null) {
+                trace.record(InjectionTrace.DEFAULT_REGISTRATION, name, startTime);
+            }
+            if (event != null) {
+                events.endDefaultRegistration(event, declaredClass, implementedClass, candidateName);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clear the cache of bean names per type of the bean factory, which only the reset of a bean definition clears.
+     */
+    private void clearBeanNamesByType() {
+        for (String name : new String[] {"singletonBeanNamesByType", "nonSingletonBeanNamesByType" }) {
+            Field field = ReflectionUtils.findField(DefaultListableBeanFactory.class, name, Map.class);
+            if (field != null) {
+                ReflectionUtils.makeAccessible(field);
+                ((Map<?, ?>) ReflectionUtils.getField(field, beanFactory)).clear();
+            }
+        }
+    }
+
+    /**
+     * Find the mutex the bean factory holds while creating a singleton and resetting a bean definition, which the
+     * factory only exposes to its subclasses.
+     * @param beanFactory the bean factory
+     * @return Returns the singleton mutex of the bean factory.
+     */
+    @Nonnull
+    private static Object findSingletonMutex(@Nonnull final DefaultListableBeanFactory beanFactory) {
+        Method method = ReflectionUtils.findMethod(beanFactory.getClass(), "getSingletonMutex");
+        Assert.state(method != null, "the bean factory has no singleton mutex");
+        ReflectionUtils.makeAccessible(method);
+        return ReflectionUtils.invokeMethod(method, beanFactory);
+    }
+
+    /**
+     * Key of a resolved dependency: the dependency type, its generic declaration, its annotations (qualifiers)
+     * and whether it is required.
+     */
+    private static final class ResolutionKey {
+
+        /**
+         * the dependency type.
+         */
+        private final Class<?> dependencyType;
+
+        /**
+         * the generic type of field or method parameter.
+         */
+        private final Type genericType;
+
+        /**
+         * the annotations of field or method parameter.
+         */
+        private final Annotation[] annotations;
+
+        /**
+         * indicating whether the dependency is required.
+         */
+        private final boolean required;
+
+        /**
+         * indicating whether the resolution eagerly initializes beans.
+         */
+        private final boolean eager;
+
+        /**
+         * the hash code.
+         */
+        private final int hash;
+
+        /**
+         * Default constructor.
+         * @param descriptor the descriptor for the dependency
+         */
+        ResolutionKey(@Nonnull final DependencyDescriptor descriptor) {
+            this.dependencyType = descriptor.getDependencyType();
+            Field field = descriptor.getField();
+            this.genericType = (field != null ? field.getGenericType()
+                    : descriptor.getMethodParameter().getGenericParameterType());
+            this.annotations = descriptor.getAnnotations();
+            this.required = descriptor.isRequired();
+            this.eager = descriptor.isEager();
+            int h = dependencyType.hashCode();
+            h = 31 * h + genericType.hashCode();
+            h = 31 * h + Arrays.hashCode(annotations);
+            h = 31 * h + (required ? 1 : 0);
+            this.hash = 31 * h + (eager ? 1 : 0);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof ResolutionKey)) {
+                return false;
+            }
+            ResolutionKey other = (ResolutionKey) obj;
+            return hash == other.hash && dependencyType == other.dependencyType && required == other.required
+                    && eager == other.eager && genericType.equals(other.genericType)
+                    && Arrays.equals(annotations, other.annotations);
         }
     }
 
     /**
-     * Gets the default implementation class of annotation.
-     * @param annotation the annotation
-     * @return Returns the default implementation class of annotation.
+     * Name of the bean a dependency resolved to, with the bean names of the dependency type at this time.
+     * <p>The resolution may differ once a bean definition is registered, overridden or removed.</p>
      */
-    protected Class<?> determineImplementedClass(@Nonnull final Annotation annotation) {
-        return ((ImplementedBy) annotation).value();
-    }
+    private static final class ResolvedBeanName {
 
-    /**
-     * Registers bean.
-     * @param clazz a class to register
-     * @param name the name of bean
-     * @return Returns the bean definition registered.
-     */
-    @Nonnull
-    protected BeanDefinition registerBean(@Nonnull final Class<?> clazz, @Nonnull final String name) {
-        String className = clazz.getCanonicalName();
-        // create the bean definition
-        BeanDefinition beanDefinition = null;
-        try {
-            beanDefinition = BeanDefinitionReaderUtils.createBeanDefinition(null, className, clazz.getClassLoader());
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-        beanDefinition.setScope(BeanDefinition.SCOPE_SINGLETON);
+        /**
+         * the name of autowired bean.
+         */
+        private final String beanName;
 
-        // Create the bean - I'm using the class name as the bean name
-        beanFactory.registerBeanDefinition(name, beanDefinition);
-        return beanDefinition;
+        /**
+         * the bean names of the dependency type returned by the factory and each of its ancestors.
+         */
+        private final String[][] candidateNames;
+
+        /**
+         * Default constructor.
+         * @param beanName the name of autowired bean
+         * @param candidateNames the bean names of the dependency type, per factory
+         */
+        ResolvedBeanName(@Nonnull final String beanName, @Nonnull final String[][] candidateNames) {
+            this.beanName = beanName;
+            this.candidateNames = candidateNames;
+        }
     }
 
     /**
-     * Register the specified bean as dependent on the autowired beans.
-     * @param beanName bean name.
-     * @param beanNames list of bean's name depending to the <code>beanname</code>.
+     * Fields and methods with an autowired annotation declared by a class.
      */
-    private void registerDependentBeans(final String beanName, final Set<String> beanNames) {
-        if (beanName != null) {
-            for (String autowiredBeanName : beanNames) {
-                beanFactory.registerDependentBean(autowiredBeanName, beanName);
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Autowiring by type from bean name '" + beanName + "' to bean named '"
-                            + autowiredBeanName + "'");
-                }
-            }
+    private static final class DeclaredInjectionPoints {
+
+        /**
+         * shared instance of classes declaring no injection point.
+         */
+        static final DeclaredInjectionPoints NONE =
+                new DeclaredInjectionPoints(new Member[0], new boolean[0], new PropertyDescriptor[0]);
+
+        /**
+         * the annotated fields then methods, in declaration order.
+         */
+        private final Member[] members;
+
+        /**
+         * indicating whether autowired of each member is required.
+         */
+        private final boolean[] required;
+
+        /**
+         * the property descriptor of each method, <code>null</code> for fields and methods not a property setter.
+         */
+        private final PropertyDescriptor[] descriptors;
+
+        /**
+         * Default constructor.
+         * @param members the annotated fields then methods
+         * @param required indicating whether autowired of each member is required
+         * @param descriptors the property descriptor of each member, if any
+         */
+        DeclaredInjectionPoints(@Nonnull final Member[] members, @Nonnull final boolean[] required,
+                                @Nonnull final PropertyDescriptor[] descriptors) {
+            this.members = members;
+            this.required = required;
+            this.descriptors = descriptors;
         }
     }
 
     /**
-     * Resolve the specified cached method argument or field value.
-     * @param beanName bean name
-     * @param cachedArgument the cached argument
-     * @return Returns the specified cached method argument or field value.
+     * Candidate constructors of a class.
      */
-    @Nullable
-    private Object resolvedCachedArgument(@Nonnull final String beanName, @Nullable final Object cachedArgument) {
-        if (cachedArgument instanceof DependencyDescriptor) {
-            DependencyDescriptor descriptor = (DependencyDescriptor) cachedArgument;
-            TypeConverter typeConverter = beanFactory.getTypeConverter();
-            return beanFactory.resolveDependency(descriptor, beanName, null, typeConverter);
-        } else if (cachedArgument instanceof RuntimeBeanReference) {
-            return beanFactory.getBean(((RuntimeBeanReference) cachedArgument).getBeanName());
-        } else {
-            return cachedArgument;
+    private static final class CandidateConstructors {
+
+        /**
+         * the candidate constructors, empty if none.
+         */
+        private final Constructor<?>[] constructors;
+
+        /**
+         * indicating whether the default implementations of constructor parameters are registered.
+         */
+        private volatile boolean defaultsRegistered = false;
+
+        /**
+         * Default constructor.
+         * @param constructors the candidate constructors, empty if none.
+         */
+        CandidateConstructors(@Nonnull final Constructor<?>[] constructors) {
+            this.constructors = constructors;
         }
     }
 
     /**
-     * Resolve the specified dependency against the beans defined in this factory.
-     * @param descriptor Resolve the specified dependency against the beans defined in this factory.
-     * @param beanName the name of the bean which declares the present dependency
-     * @param autowiredBeanNames a Set that all names of autowired beans (used for resolving the present dependency) 
-     * are supposed to be added to
-     * @param typeConverter the TypeConverter to use for populating arrays and collections
-     * @return Returns the resolved object, or null if none found
+     * Cached reference to a singleton bean, keeping the instance once created.
+     * <p>The cached instance is used as long as the singleton registry still holds the same object under the
+     * bean name. Otherwise it is looked up again in the factory, so a destroyed or replaced singleton is never
+     * injected, while the destruction of other beans (e.g. request or session scoped) keeps the cache.</p>
      */
-    protected Object resolveDependency(@Nonnull final DependencyDescriptor descriptor, @Nonnull final String beanName,
-                                       @Nonnull final Set<String> autowiredBeanNames,
-                                       @Nonnull final TypeConverter typeConverter) {
-        Object value = null;
-        try {
-            value = beanFactory.resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
-        } catch (BeansException ex) {
+    private final class CachedSingleton {
+
+        /**
+         * the name of singleton bean.
+         */
+        private final String beanName;
+
+        /**
+         * the instance and the registered singleton, <code>null</code> until the singleton is fully created.
+         */
+        private volatile SingletonInstance instance;
+
+        /**
+         * Default constructor.
+         * @param beanName the name of singleton bean
+         */
+        CachedSingleton(@Nonnull final String beanName) {
+            this.beanName = beanName;
         }
-        if (value == null && registerDefaultDependency(descriptor.getDependencyType())) {
-            value = beanFactory.resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
+
+        /**
+         * Gets the singleton instance.
+         * @return Returns the singleton instance, from cache if the registered singleton has not changed since.
+         */
+        @Nonnull
+        Object resolve() {
+            SingletonInstance current = this.instance;
+            if (current != null && beanFactory.getSingleton(this.beanName) == current.registered) {
+                return current.bean;
+            }
+            Object bean = beanFactory.getBean(this.beanName);
+            // an early reference to a singleton in creation may differ from the final instance.
+            if (!beanFactory.isCurrentlyInCreation(this.beanName)) {
+                Object registered = beanFactory.getSingleton(this.beanName);
+                this.instance = (registered != null ? new SingletonInstance(bean, registered) : null);
+            }
+            return bean;
         }
-        return value;
     }
 
     /**
-     * Register the default implementation.
-     * @param declaredClass the class
-     * @return Returns <code>true</code> if register the default implementation, otherwise <code>false</code>.
+     * Singleton instance with the object registered for it in the singleton registry.
      */
-    protected boolean registerDefaultDependency(@Nonnull final Class<?> declaredClass) {
-        Annotation annot = findImplementedByAnnotation(declaredClass);
-        if (annot != null) {
-            Class<?> implementedClass = determineImplementedClass(annot);
-            registerBean(implementedClass, implementedClass.getCanonicalName());
-            return true;
+    private static final class SingletonInstance {
+
+        /**
+         * the singleton instance.
+         */
+        private final Object bean;
+
+        /**
+         * the registered singleton, the factory of instance for a
+         * {@link org.springframework.beans.factory.FactoryBean}.
+         */
+        private final Object registered;
+
+        /**
+         * Default constructor.
+         * @param bean the singleton instance
+         * @param registered the registered singleton
+         */
+        SingletonInstance(@Nonnull final Object bean, @Nonnull final Object registered) {
+            this.bean = bean;
+            this.registered = registered;
         }
-        return false;
     }
 
     /**
-     * Class representing injection information about an annotated field.
+     * Injected element caching the resolution of its dependencies.
+     * <p>The cached value is published without lock: threads injecting the element before its publication
+     * resolve the dependencies themselves and the first compare-and-set publishes its value. No thread ever waits
+     * for another one, which may be blocked by a lock the waiting thread holds (singleton creation), so the threads
+     * injecting the element during the first resolution pay their own resolution. Once they see the published
+     * value, they stop resolving and inject the value of the publishing thread, see
+     * {@link #reusePublished(String, Object, Object)}.</p>
      */
-    private class AutowiredFieldElement extends InjectionMetadata.InjectedElement {
+    private abstract class CachingInjectedElement extends InjectionMetadata.InjectedElement {
 
         /**
-         * indicating whether autowired of field is required.
+         * <code>null</code> if not resolved, then the cached value.
          */
-        private final boolean required;
+        private final AtomicReference<Object> cachedValue = new AtomicReference<Object>();
+
+        /**
+         * the injector generated at build time, <code>null</code> to inject through reflection.
+         */
+        protected GeneratedInjector injector;
+
+        /**
+         * the index of element in generated injector.
+         */
+        protected int injectorIndex;
+
+        /**
+         * Default constructor.
+         * @param member the injected member
+         * @param pd property descriptor of member
+         */
+        protected CachingInjectedElement(@Nonnull final Member member, @Nullable final PropertyDescriptor pd) {
+            super(member, pd);
+        }
+
+        /**
+         * Injects the element with a generated injector rather than reflection.
+         * <p>Must be called before the element is published.</p>
+         * @param generatedInjector the generated injector
+         * @param index the index of element in generated injector
+         */
+        final void useInjector(@Nonnull final GeneratedInjector generatedInjector, final int index) {
+            this.injector = generatedInjector;
+            this.injectorIndex = index;
+        }
+
+        /**
+         * Gets the cached value.
+         * @return Returns the cached value ({@link #NO_VALUE} if none), or <code>null</code> if the dependencies
+         *         are not resolved yet.
+         */
+        @Nullable
+        protected final Object getCachedValue() {
+            return this.cachedValue.get();
+        }
 
         /**
-         * indicating wether the value is cached.
+         * Publishes the cached value, unless another thread published it first.
+         * @param value the cached value, {@link #NO_VALUE} if none
+         * @return Returns the published value: the given value, or the value of the thread which published first.
          */
-        private volatile boolean cached = false;
+        @Nonnull
+        protected final Object publish(@Nonnull final Object value) {
+            if (this.cachedValue.compareAndSet(null, value)) {
+                return value;
+            }
+            return this.cachedValue.get();
+        }
+
+        /**
+         * Gets the value to inject by a thread which resolved a dependency while another thread published its own.
+         * <p>No value and cached singletons are injected as published, so that both threads inject the same value.
+         * A dependency resolved on each injection (prototype bean or dependency descriptor) keeps the value the
+         * thread resolved, resolving the published one would only create an equivalent value again.</p>
+         * @param beanName bean name
+         * @param published the published cached argument or field value
+         * @param resolved the value resolved by the thread, <code>null</code> if none
+         * @return Returns the value to inject, <code>null</code> if none.
+         */
+        @Nullable
+        protected final Object reusePublished(@Nonnull final String beanName, @Nonnull final Object published,
+                                              @Nullable final Object resolved) {
+            if (published == NO_VALUE) {
+                return null;
+            } else if (published instanceof CachedSingleton || resolved == null) {
+                return resolvedCachedArgument(beanName, published);
+            }
+            return resolved;
+        }
+    }
+
+    /**
+     * Class representing injection information about an annotated field.
+     */
+    private class AutowiredFieldElement extends CachingInjectedElement {
 
         /**
-         * the cached value.
+         * indicating whether autowired of field is required.
          */
-        private volatile Object cachedFieldValue;
+        private final boolean required;
 
         /**
          * Default constructor.
@@ -658,6 +2643,9 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
         public AutowiredFieldElement(@Nonnull final Field field, @Nonnull final boolean required) {
             super(field, null);
             this.required = required;
+            // made accessible once, rather than on each injection. The injection itself stays reflective,
+            // unless a generated injector covers the member, which private members never are.
+            ReflectionUtils.makeAccessible(field);
         }
 
         /**
@@ -669,63 +2657,78 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
             Field field = (Field) this.member;
             try {
                 Object value = null;
-                if (this.cached) {
-                    value = resolvedCachedArgument(beanName, this.cachedFieldValue);
-                } else {
-                    DependencyDescriptor descriptor = new DependencyDescriptor(field, this.required);
-                    Set<String> autowiredBeanNames = new LinkedHashSet<String>(1);
-                    TypeConverter typeConverter = beanFactory.getTypeConverter();
-                    value = resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
-                    synchronized (this) {
-                        if (!this.cached) {
-                            if (value != null || this.required) {
-                                this.cachedFieldValue = descriptor;
-                                registerDependentBeans(beanName, autowiredBeanNames);
-                                if (autowiredBeanNames.size() == 1) {
-                                    String autowiredBeanName = autowiredBeanNames.iterator().next();
-                                    if (beanFactory.containsBean(autowiredBeanName)) {
-                                        if (beanFactory.isTypeMatch(autowiredBeanName, field.getType())) {
-                                            this.cachedFieldValue = new RuntimeBeanReference(autowiredBeanName);
-                                        }
-                                    }
-                                }
-                            } else {
-                                this.cachedFieldValue = null;
-                            }
-                            this.cached = true;
-                        }
-                    }
+                Object cached = getCachedValue();
+                if (cached == null) {
+                    value = resolveField(field, beanName);
+                } else if (cached != NO_VALUE) {
+                    value = resolvedCachedArgument(beanName, cached);
                 }
                 if (value != null) {
-                    ReflectionUtils.makeAccessible(field);
-                    field.set(bean, value);
+                    if (this.injector != null) {
+                        this.injector.setField(bean, this.injectorIndex, value);
+                        generatedInjection();
+                    } else {
+                        field.set(bean, value);
+                    }
                 }
             } catch (Throwable ex) {
                 throw new BeanCreationException("Could not autowire field: " + field, ex);
             }
         }
+
+        /**
+         * Resolves the value of field.
+         * @param field the field to inject
+         * @param beanName bean name
+         * @return Returns the value to inject, <code>null</code> if none.
+         */
+        @Nullable
+        private Object resolveField(@Nonnull final Field field, @Nonnull final String beanName) {
+            DependencyDescriptor descriptor = new DependencyDescriptor(field, this.required);
+            Set<String> autowiredBeanNames = new LinkedHashSet<String>(1);
+            Object value;
+            TypeConverter typeConverter = borrowTypeConverter();
+            try {
+                value = resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
+            } finally {
+                releaseTypeConverter(typeConverter);
+            }
+            Object published = getCachedValue();
+            if (published != null) {
+                // resolved concurrently, the dependent beans are registered by the publishing thread.
+                return reusePublished(beanName, published, value);
+            }
+            Object cachedFieldValue = NO_VALUE;
+            if (value != null || this.required) {
+                cachedFieldValue = descriptor;
+                registerDependentBeans(beanName, autowiredBeanNames);
+                if (autowiredBeanNames.size() == 1) {
+                    String autowiredBeanName = autowiredBeanNames.iterator().next();
+                    if (beanFactory.containsBean(autowiredBeanName)) {
+                        if (beanFactory.isTypeMatch(autowiredBeanName, field.getType())) {
+                            cachedFieldValue = createBeanReference(autowiredBeanName);
+                        }
+                    }
+                }
+            }
+            published = publish(cachedFieldValue);
+            if (published != cachedFieldValue) {
+                return reusePublished(beanName, published, value);
+            }
+            return value;
+        }
     }
 
     /**
      * Class representing injection information about an annotated method.
      */
-    private class AutowiredMethodElement extends InjectionMetadata.InjectedElement {
+    private class AutowiredMethodElement extends CachingInjectedElement {
 
         /**
          * indicating whether autowired of method is required.
          */
         private final boolean required;
 
-        /**
-         * indicating wether the value is cached.
-         */
-        private volatile boolean cached = false;
-
-        /**
-         * the cached values.
-         */
-        private volatile Object[] cachedMethodArguments;
-
         /**
          * Default constructor.
          * @param method method to inject
@@ -735,6 +2738,16 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
         public AutowiredMethodElement(final Method method, final boolean required, final PropertyDescriptor pd) {
             super(method, pd);
             this.required = required;
+            // made accessible once, rather than on each injection. The injection itself stays reflective,
+            // unless a generated injector covers the member, which private members never are.
+            ReflectionUtils.makeAccessible(method);
+        }
+
+        /**
+         * @return Returns <code>true</code> if the method is a property setter.
+         */
+        private boolean hasPropertyDescriptor() {
+            return this.pd != null;
         }
 
         /**
@@ -747,70 +2760,20 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
             }
             Method method = (Method) this.member;
             try {
-                Object[] arguments;
-                if (this.cached) {
-                    // Shortcut for avoiding synchronization...
-                    arguments = resolveCachedArguments(beanName);
-                } else {
-                    Class<?>[] paramTypes = method.getParameterTypes();
-                    arguments = new Object[paramTypes.length];
-                    DependencyDescriptor[] descriptors = new DependencyDescriptor[paramTypes.length];
-                    Set<String> autowiredBeanNames = new LinkedHashSet<String>(paramTypes.length);
-                    TypeConverter typeConverter = beanFactory.getTypeConverter();
-                    for (int i = 0; i < arguments.length; i++) {
-                        MethodParameter methodParam = new MethodParameter(method, i);
-                        GenericTypeResolver.resolveParameterType(methodParam, bean.getClass());
-                        descriptors[i] = new DependencyDescriptor(methodParam, this.required);
-                        arguments[i] = resolveDependency(descriptors[i], beanName, autowiredBeanNames, typeConverter);
-                        if (arguments[i] == null) {
-
-                            Class<?> declaredClass = descriptors[i].getDependencyType();
-                            Annotation annot = findImplementedByAnnotation(declaredClass);
-                            if (annot != null) {
-                                Class<?> implementedClass = determineImplementedClass(annot);
-                                registerBean(implementedClass, implementedClass.getCanonicalName());
-                                arguments[i] =
-                                        beanFactory.resolveDependency(descriptors[i],
-                                            beanName,
-                                            autowiredBeanNames,
-                                            typeConverter);
-                            }
-                        }
-                        if (arguments[i] == null && !this.required) {
-                            arguments = null;
-                            break;
-                        }
-                    }
-                    synchronized (this) {
-                        if (!this.cached) {
-                            if (arguments != null) {
-                                this.cachedMethodArguments = new Object[arguments.length];
-                                for (int i = 0; i < arguments.length; i++) {
-                                    this.cachedMethodArguments[i] = descriptors[i];
-                                }
-                                registerDependentBeans(beanName, autowiredBeanNames);
-                                if (autowiredBeanNames.size() == paramTypes.length) {
-                                    Iterator<String> it = autowiredBeanNames.iterator();
-                                    for (int i = 0; i < paramTypes.length; i++) {
-                                        String autowiredBeanName = it.next();
-                                        if (beanFactory.containsBean(autowiredBeanName)) {
-                                            if (beanFactory.isTypeMatch(autowiredBeanName, paramTypes[i])) {
-                                                this.cachedMethodArguments[i] =
-                                                        new RuntimeBeanReference(autowiredBeanName);
-                                            }
-                                        }
-                                    }
-                                }
-                            } else {
-                                this.cachedMethodArguments = null;
-                            }
-                            this.cached = true;
-                        }
-                    }
+                Object[] arguments = null;
+                Object cached = getCachedValue();
+                if (cached == null) {
+                    arguments = resolveArguments(method, bean, beanName);
+                } else if (cached != NO_VALUE) {
+                    arguments = resolveCachedArguments(beanName, (Object[]) cached);
                 }
                 if (arguments != null) {
-                    ReflectionUtils.makeAccessible(method);
-                    method.invoke(bean, arguments);
+                    if (this.injector != null) {
+                        invokeGenerated(bean, arguments);
+                        generatedInjection();
+                    } else {
+                        method.invoke(bean, arguments);
+                    }
                 }
             } catch (InvocationTargetException ex) {
                 throw ex.getTargetException();
@@ -820,18 +2783,115 @@ public class ExtendAutowiredAnnotationBeanPostProcessor extends InstantiationAwa
         }
 
         /**
-         * Resolve the specified cached method arguments.
+         * Calls the method with the generated injector.
+         * @param bean the bean to inject
+         * @param arguments the method arguments
+         * @throws InvocationTargetException wrapping any exception thrown by the method
+         */
+        private void invokeGenerated(@Nonnull final Object bean, @Nonnull final Object[] arguments)
+                throws InvocationTargetException {
+            try {
+                this.injector.invokeMethod(bean, this.injectorIndex, arguments);
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+
+        /**
+         * Resolves the method arguments.
+         * @param method the method to inject
+         * @param bean the bean to inject
          * @param beanName bean name
-         * @return Returns the specified cached method arguments.
+         * @return Returns the method arguments, <code>null</code> if the method must not be invoked.
+         */
+        @Nullable
+        private Object[] resolveArguments(@Nonnull final Method method, @Nonnull final Object bean,
+                                          @Nonnull final String beanName) {
+            Class<?>[] paramTypes = method.getParameterTypes();
+            Object[] arguments = new Object[paramTypes.length];
+            DependencyDescriptor[] descriptors = new DependencyDescriptor[paramTypes.length];
+            Set<String> autowiredBeanNames = new LinkedHashSet<String>(paramTypes.length);
+            TypeConverter typeConverter = borrowTypeConverter();
+            try {
+                for (int i = 0; i < arguments.length; i++) {
+                    MethodParameter methodParam = new MethodParameter(method, i);
+                    GenericTypeResolver.resolveParameterType(methodParam, bean.getClass());
+                    descriptors[i] = new DependencyDescriptor(methodParam, this.required);
+                    arguments[i] = resolveDependency(descriptors[i], beanName, autowiredBeanNames, typeConverter);
+                    if (arguments[i] == null && !this.required) {
+                        arguments = null;
+                        break;
+                    }
+                }
+            } finally {
+                releaseTypeConverter(typeConverter);
+            }
+            Object published = getCachedValue();
+            if (published != null) {
+                // resolved concurrently, the dependent beans are registered by the publishing thread.
+                return reusePublishedArguments(beanName, published, arguments);
+            }
+            Object cachedMethodArguments = NO_VALUE;
+            if (arguments != null) {
+                Object[] cachedArguments = new Object[arguments.length];
+                System.arraycopy(descriptors, 0, cachedArguments, 0, descriptors.length);
+                registerDependentBeans(beanName, autowiredBeanNames);
+                if (autowiredBeanNames.size() == paramTypes.length) {
+                    Iterator<String> it = autowiredBeanNames.iterator();
+                    for (int i = 0; i < paramTypes.length; i++) {
+                        String autowiredBeanName = it.next();
+                        if (beanFactory.containsBean(autowiredBeanName)) {
+                            if (beanFactory.isTypeMatch(autowiredBeanName, paramTypes[i])) {
+                                cachedArguments[i] = createBeanReference(autowiredBeanName);
+                            }
+                        }
+                    }
+                }
+                cachedMethodArguments = cachedArguments;
+            }
+            published = publish(cachedMethodArguments);
+            if (published != cachedMethodArguments) {
+                return reusePublishedArguments(beanName, published, arguments);
+            }
+            return arguments;
+        }
+
+        /**
+         * Gets the method arguments to inject by a thread which resolved them while another thread published its
+         * own, see {@link #reusePublished(String, Object, Object)}.
+         * @param beanName bean name
+         * @param published the published cached method arguments
+         * @param resolved the method arguments resolved by the thread, <code>null</code> if none
+         * @return Returns the method arguments, <code>null</code> if the method must not be invoked.
          */
         @Nullable
-        private Object[] resolveCachedArguments(@Nonnull final String beanName) {
-            if (this.cachedMethodArguments == null) {
+        private Object[] reusePublishedArguments(@Nonnull final String beanName, @Nonnull final Object published,
+                                                 @Nullable final Object[] resolved) {
+            if (published == NO_VALUE) {
                 return null;
             }
-            Object[] arguments = new Object[this.cachedMethodArguments.length];
+            Object[] cachedArguments = (Object[]) published;
+            Object[] arguments = new Object[cachedArguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = reusePublished(beanName, cachedArguments[i], (resolved != null ? resolved[i] : null));
+            }
+            return arguments;
+        }
+
+        /**
+         * Resolve the specified cached method arguments.
+         * <p>Allocates the argument array only, singleton references are returned from cache and
+         * type converters are reused.</p>
+         * @param beanName bean name
+         * @param cachedArguments the cached method arguments
+         * @return Returns the specified cached method arguments.
+         */
+        @Nonnull
+        private Object[] resolveCachedArguments(@Nonnull final String beanName,
+                                                @Nonnull final Object[] cachedArguments) {
+            Object[] arguments = new Object[cachedArguments.length];
             for (int i = 0; i < arguments.length; i++) {
-                arguments[i] = resolvedCachedArgument(beanName, this.cachedMethodArguments[i]);
+                arguments[i] = resolvedCachedArgument(beanName, cachedArguments[i]);
             }
             return arguments;
         }
@@ -0,0 +1,292 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events of injection, under the category <em>Spring / ImplementedBy</em>.
+ * <p>Whether an event type is recorded, and above which duration, is set by the recording settings, e.g.
+ * <code>org.springframework.beans.annotation.DependencyResolution#threshold=0 ms</code>. A disabled event type
+ * is checked on a shared instance, so that no event is allocated.</p>
+ * <p>This class is only loaded when the <code>jdk.jfr</code> API is present, see
+ * {@link InjectionEvents#createFlightRecorderEvents()}.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+final class FlightRecorderInjectionEvents extends InjectionEvents {
+
+    /**
+     * instance checking whether metadata build events are enabled.
+     */
+    private final MetadataBuildEvent metadataBuild = new MetadataBuildEvent();
+
+    /**
+     * instance checking whether dependency resolution events are enabled.
+     */
+    private final DependencyResolutionEvent resolution = new DependencyResolutionEvent();
+
+    /**
+     * instance checking whether default registration events are enabled.
+     */
+    private final DefaultRegistrationEvent defaultRegistration = new DefaultRegistrationEvent();
+
+    /**
+     * instance checking whether injection events are enabled.
+     */
+    private final InjectionEvent injection = new InjectionEvent();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    Object beginMetadataBuild() {
+        if (!metadataBuild.isEnabled()) {
+            return null;
+        }
+        MetadataBuildEvent event = new MetadataBuildEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void endMetadataBuild(@Nonnull final Object event, @Nonnull final Class<?> beanClass) {
+        MetadataBuildEvent e = (MetadataBuildEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.beanClass = beanClass;
+            e.commit();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    Object beginResolution() {
+        if (!resolution.isEnabled()) {
+            return null;
+        }
+        DependencyResolutionEvent event = new DependencyResolutionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void endResolution(@Nonnull final Object event, @Nonnull final Class<?> dependencyType,
+                       @Nullable final String beanName, @Nullable final Object value,
+                       @Nullable final Throwable failure) {
+        DependencyResolutionEvent e = (DependencyResolutionEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.dependencyType = dependencyType;
+            e.beanName = beanName;
+            if (failure != null) {
+                e.outcome = "failed: " + failure.getClass().getName();
+            } else if (value == null) {
+                e.outcome = "unresolved";
+            } else {
+                e.outcome = "resolved";
+                e.resolvedClass = value.getClass();
+            }
+            e.commit();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    Object beginDefaultRegistration() {
+        if (!defaultRegistration.isEnabled()) {
+            return null;
+        }
+        DefaultRegistrationEvent event = new DefaultRegistrationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void endDefaultRegistration(@Nonnull final Object event, @Nonnull final Class<?> declaredType,
+                                @Nonnull final Class<?> implementation, @Nonnull final String beanName) {
+        DefaultRegistrationEvent e = (DefaultRegistrationEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.declaredType = declaredType;
+            e.implementation = implementation;
+            e.beanName = beanName;
+            e.commit();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    Object beginInjection() {
+        if (!injection.isEnabled()) {
+            return null;
+        }
+        InjectionEvent event = new InjectionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void endInjection(@Nonnull final Object event, @Nonnull final Class<?> beanClass,
+                      @Nullable final String beanName) {
+        InjectionEvent e = (InjectionEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.beanClass = beanClass;
+            e.beanName = beanName;
+            e.commit();
+        }
+    }
+
+    /**
+     * Build of the injection metadata of a class.
+     */
+    @Name("org.springframework.beans.annotation.MetadataBuild")
+    @Label("Injection Metadata Build")
+    @Description("Introspection of the injection points of a class")
+    @Category({"Spring", "ImplementedBy" })
+    @Threshold("0 ms")
+    @StackTrace(false)
+    static final class MetadataBuildEvent extends Event {
+
+        /**
+         * the introspected class.
+         */
+        @Label("Bean Class")
+        private Class<?> beanClass;
+    }
+
+    /**
+     * Resolution of a dependency.
+     */
+    @Name("org.springframework.beans.annotation.DependencyResolution")
+    @Label("Dependency Resolution")
+    @Description("Resolution of an injected dependency against the bean factory")
+    @Category({"Spring", "ImplementedBy" })
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class DependencyResolutionEvent extends Event {
+
+        /**
+         * the type of dependency.
+         */
+        @Label("Dependency Type")
+        private Class<?> dependencyType;
+
+        /**
+         * the name of the bean which declares the dependency.
+         */
+        @Label("Bean Name")
+        private String beanName;
+
+        /**
+         * resolved, unresolved or failed.
+         */
+        @Label("Outcome")
+        private String outcome;
+
+        /**
+         * the class of resolved value.
+         */
+        @Label("Resolved Class")
+        private Class<?> resolvedClass;
+    }
+
+    /**
+     * Registration of the default implementation of an {@link ImplementedBy} type.
+     */
+    @Name("org.springframework.beans.annotation.DefaultRegistration")
+    @Label("Default Implementation Registration")
+    @Description("Registration of the default implementation of an @ImplementedBy type")
+    @Category({"Spring", "ImplementedBy" })
+    @Threshold("0 ms")
+    @StackTrace(false)
+    static final class DefaultRegistrationEvent extends Event {
+
+        /**
+         * the type annotated with {@link ImplementedBy}.
+         */
+        @Label("Declared Type")
+        private Class<?> declaredType;
+
+        /**
+         * the chosen implementation.
+         */
+        @Label("Implementation")
+        private Class<?> implementation;
+
+        /**
+         * the name of registered autowire candidate.
+         */
+        @Label("Bean Name")
+        private String beanName;
+    }
+
+    /**
+     * Injection of the fields and methods of a bean.
+     */
+    @Name("org.springframework.beans.annotation.Injection")
+    @Label("Bean Injection")
+    @Description("Injection of the annotated fields and methods of a bean")
+    @Category({"Spring", "ImplementedBy" })
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class InjectionEvent extends Event {
+
+        /**
+         * the class of bean.
+         */
+        @Label("Bean Class")
+        private Class<?> beanClass;
+
+        /**
+         * the name of bean.
+         */
+        @Label("Bean Name")
+        private String beanName;
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Base class of injectors generated at build time by {@link ImplementedByInjectorGenerator}.
+ * <p>A generated injector is named after its bean class with the {@value #SUFFIX} suffix, in the same package.
+ * It lists the injection points and candidate constructors found by the post-processor when generated,
+ * and sets the fields and calls the methods directly instead of reflection. Injection points not accessible from
+ * the package of bean class (e.g. private fields) are listed as reflective, and keep being injected through
+ * reflection.</p>
+ * <p>It also holds the fingerprint of the annotated members of its bean class when generated. An injector whose
+ * fingerprint differs from the one of the loaded class (e.g. an injection point was added since) is stale and
+ * not used.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+public abstract class GeneratedInjector {
+
+    /**
+     * suffix of generated injector class names.
+     */
+    public static final String SUFFIX = "_ImplementedByInjector";
+
+    /**
+     * the injection points, in injection order.
+     */
+    private final WarmStartCache.Member[] members;
+
+    /**
+     * indicating whether each injection point is injected by the generated code.
+     */
+    private final boolean[] generated;
+
+    /**
+     * the parameter types of candidate constructors.
+     */
+    private final String[][] constructors;
+
+    /**
+     * the fingerprint of annotated members of bean class.
+     */
+    private final String fingerprint;
+
+    /**
+     * Default constructor.
+     * @param fingerprint the fingerprint of annotated members of bean class
+     * @param injectionPoints the injection points, in injection order
+     * @param constructors the parameter types (binary names) of candidate constructors
+     */
+    protected GeneratedInjector(@Nonnull final String fingerprint, @Nonnull final InjectionPoint[] injectionPoints,
+            @Nonnull final String[][] constructors) {
+        this.fingerprint = fingerprint;
+        this.members = new WarmStartCache.Member[injectionPoints.length];
+        this.generated = new boolean[injectionPoints.length];
+        for (int i = 0; i < injectionPoints.length; i++) {
+            this.members[i] = injectionPoints[i].member;
+            this.generated[i] = injectionPoints[i].generated;
+        }
+        this.constructors = constructors;
+    }
+
+    /**
+     * Creates an injected field.
+     * @param declaringClass the binary name of declaring class
+     * @param name the name of field
+     * @param required indicating whether the dependency is required
+     * @return Returns a new injection point.
+     */
+    @Nonnull
+    protected static InjectionPoint field(@Nonnull final String declaringClass, @Nonnull final String name,
+                                          final boolean required) {
+        return new InjectionPoint(new WarmStartCache.Member(declaringClass, name, required), true);
+    }
+
+    /**
+     * Creates an injected field not accessible from the injector, set through reflection.
+     * @param declaringClass the binary name of declaring class
+     * @param name the name of field
+     * @param required indicating whether the dependency is required
+     * @return Returns a new injection point.
+     */
+    @Nonnull
+    protected static InjectionPoint reflectiveField(@Nonnull final String declaringClass, @Nonnull final String name,
+                                                    final boolean required) {
+        return new InjectionPoint(new WarmStartCache.Member(declaringClass, name, required), false);
+    }
+
+    /**
+     * Creates an injected method.
+     * @param declaringClass the binary name of declaring class
+     * @param name the name of method
+     * @param required indicating whether the dependencies are required
+     * @param property indicating whether the method is a property setter
+     * @param parameterTypes the binary names of parameter types
+     * @return Returns a new injection point.
+     */
+    @Nonnull
+    protected static InjectionPoint method(@Nonnull final String declaringClass, @Nonnull final String name,
+                                           final boolean required, final boolean property,
+                                           @Nonnull final String... parameterTypes) {
+        return new InjectionPoint(new WarmStartCache.Member(declaringClass, name, parameterTypes, required,
+                property), true);
+    }
+
+    /**
+     * Creates an injected method not accessible from the injector, called through reflection.
+     * @param declaringClass the binary name of declaring class
+     * @param name the name of method
+     * @param required indicating whether the dependencies are required
+     * @param property indicating whether the method is a property setter
+     * @param parameterTypes the binary names of parameter types
+     * @return Returns a new injection point.
+     */
+    @Nonnull
+    protected static InjectionPoint reflectiveMethod(@Nonnull final String declaringClass, @Nonnull final String name,
+                                                     final boolean required, final boolean property,
+                                                     @Nonnull final String... parameterTypes) {
+        return new InjectionPoint(new WarmStartCache.Member(declaringClass, name, parameterTypes, required,
+                property), false);
+    }
+
+    /**
+     * Sets an injected field.
+     * @param bean the bean to inject
+     * @param index the index of injection point
+     * @param value the value to set
+     */
+    protected abstract void setField(@Nonnull Object bean, int index, @Nonnull Object value);
+
+    /**
+     * Calls an injected method.
+     * @param bean the bean to inject
+     * @param index the index of injection point
+     * @param arguments the method arguments
+     * @throws Throwable any exception thrown by the method
+     */
+    protected abstract void invokeMethod(@Nonnull Object bean, int index, @Nonnull Object[] arguments)
+            throws Throwable;
+
+    /**
+     * @return Returns the fingerprint of annotated members of bean class when generated.
+     */
+    @Nonnull
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return Returns the injection points, in injection order.
+     */
+    @Nonnull
+    WarmStartCache.Member[] getMembers() {
+        return members;
+    }
+
+    /**
+     * Indicates whether an injection point is injected by the generated code.
+     * @param index the index of injection point
+     * @return Returns <code>false</code> if the injection point is injected through reflection.
+     */
+    boolean isGenerated(final int index) {
+        return generated[index];
+    }
+
+    /**
+     * @return Returns the parameter types of candidate constructors.
+     */
+    @Nonnull
+    String[][] getConstructors() {
+        return constructors;
+    }
+
+    /**
+     * Injected field or method of a generated injector.
+     */
+    public static final class InjectionPoint {
+
+        /**
+         * the injected member.
+         */
+        private final WarmStartCache.Member member;
+
+        /**
+         * indicating whether the member is injected by the generated code.
+         */
+        private final boolean generated;
+
+        /**
+         * Default constructor.
+         * @param member the injected member
+         * @param generated indicating whether the member is injected by the generated code
+         */
+        InjectionPoint(@Nonnull final WarmStartCache.Member member, final boolean generated) {
+            this.member = member;
+            this.generated = generated;
+        }
+    }
+}
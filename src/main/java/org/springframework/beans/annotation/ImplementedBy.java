@@ -36,4 +36,24 @@ public @interface ImplementedBy {
      * the default implementation class.
      */
     Class<?> value();
+
+    /**
+     * indicating whether the default implementation is created on first method call only.
+     * <p>A proxy of all interfaces of the default implementation is injected instead, so the annotated
+     * type must be an interface. Defaults are created eagerly for annotated classes.</p>
+     */
+    boolean lazy() default false;
+
+    /**
+     * the scope of the default implementation.
+     * <p>{@link ImplementedByScope#THREAD} and {@link ImplementedByScope#POOLED} defaults are injected behind a
+     * proxy of all interfaces of the default implementation, so the annotated type must be an interface.
+     * They fall back to {@link ImplementedByScope#PROTOTYPE} for annotated classes.</p>
+     */
+    ImplementedByScope scope() default ImplementedByScope.SINGLETON;
+
+    /**
+     * the maximum number of instances of a {@link ImplementedByScope#POOLED} default implementation.
+     */
+    int maxPoolSize() default 8;
 }
@@ -35,6 +35,51 @@ import org.w3c.dom.Element;
  */
 public class ImplementedByConfigBeanDefinitionParser extends AnnotationConfigBeanDefinitionParser {
 
+    /**
+     * attribute enabling the compile time index of {@link ImplementedBy} bindings.
+     */
+    private static final String BINDING_INDEX_ATTRIBUTE = "binding-index";
+
+    /**
+     * attribute limiting the number of classes in metadata caches.
+     */
+    private static final String CACHE_LIMIT_ATTRIBUTE = "cache-limit";
+
+    /**
+     * attribute enabling the injection statistics MBean.
+     */
+    private static final String STATISTICS_ATTRIBUTE = "statistics";
+
+    /**
+     * attribute enabling the parallel build of metadata caches.
+     */
+    private static final String PREWARM_ATTRIBUTE = "prewarm";
+
+    /**
+     * attribute setting the file of warm-start cache.
+     */
+    private static final String WARM_START_CACHE_ATTRIBUTE = "warm-start-cache";
+
+    /**
+     * attribute creating all default implementations on first use.
+     */
+    private static final String LAZY_DEFAULTS_ATTRIBUTE = "lazy-defaults";
+
+    /**
+     * attribute using the injectors generated at build time.
+     */
+    private static final String GENERATED_INJECTORS_ATTRIBUTE = "generated-injectors";
+
+    /**
+     * attribute setting the file of startup trace.
+     */
+    private static final String TRACE_FILE_ATTRIBUTE = "trace-file";
+
+    /**
+     * attribute emitting Java Flight Recorder events.
+     */
+    private static final String FLIGHT_RECORDER_ATTRIBUTE = "flight-recorder";
+
     /**
      * {@inheritDoc}
      */
@@ -48,6 +93,34 @@ public class ImplementedByConfigBeanDefinitionParser extends AnnotationConfigBea
             String name = AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME;
             RootBeanDefinition def = new RootBeanDefinition(ExtendAutowiredAnnotationBeanPostProcessor.class);
             def.setSource(source);
+            if (element.hasAttribute(BINDING_INDEX_ATTRIBUTE)) {
+                def.getPropertyValues().add("useBindingIndex", element.getAttribute(BINDING_INDEX_ATTRIBUTE));
+            }
+            if (element.hasAttribute(CACHE_LIMIT_ATTRIBUTE)) {
+                def.getPropertyValues().add("cacheLimit", element.getAttribute(CACHE_LIMIT_ATTRIBUTE));
+            }
+            if (element.hasAttribute(STATISTICS_ATTRIBUTE)) {
+                def.getPropertyValues().add("statisticsEnabled", element.getAttribute(STATISTICS_ATTRIBUTE));
+            }
+            if (element.hasAttribute(PREWARM_ATTRIBUTE)) {
+                def.getPropertyValues().add("prewarm", element.getAttribute(PREWARM_ATTRIBUTE));
+            }
+            if (element.hasAttribute(WARM_START_CACHE_ATTRIBUTE)) {
+                def.getPropertyValues().add("warmStartCacheFile", element.getAttribute(WARM_START_CACHE_ATTRIBUTE));
+            }
+            if (element.hasAttribute(LAZY_DEFAULTS_ATTRIBUTE)) {
+                def.getPropertyValues().add("lazyDefaults", element.getAttribute(LAZY_DEFAULTS_ATTRIBUTE));
+            }
+            if (element.hasAttribute(GENERATED_INJECTORS_ATTRIBUTE)) {
+                def.getPropertyValues().add("useGeneratedInjectors",
+                        element.getAttribute(GENERATED_INJECTORS_ATTRIBUTE));
+            }
+            if (element.hasAttribute(TRACE_FILE_ATTRIBUTE)) {
+                def.getPropertyValues().add("traceFile", element.getAttribute(TRACE_FILE_ATTRIBUTE));
+            }
+            if (element.hasAttribute(FLIGHT_RECORDER_ATTRIBUTE)) {
+                def.getPropertyValues().add("flightRecorderEnabled", element.getAttribute(FLIGHT_RECORDER_ATTRIBUTE));
+            }
             holder = registerPostProcessor(registry, def, name);
 
             // Registers component for the surrounding <implementedby:annotation-config> element.
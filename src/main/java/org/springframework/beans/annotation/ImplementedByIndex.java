@@ -0,0 +1,293 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of interface to default implementation bindings declared by {@link ImplementedBy}.
+ * <p>The index is generated at compile time by {@link ImplementedByProcessor} in the
+ * {@value #INDEX_LOCATION} resource of each jar. An entry maps the binary name of an annotated type to the
+ * binary name of its default implementation, followed by the attributes of {@link ImplementedBy} differing
+ * from their default, e.g. <code>com.acme.Cache=com.acme.MemoryCache,lazy=true,scope=POOLED,maxPoolSize=4</code>.
+ * </p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+final class ImplementedByIndex {
+
+    /**
+     * location of index resources in classpath.
+     */
+    public static final String INDEX_LOCATION = "META-INF/spring.implementedby";
+
+    /**
+     * the {@link ImplementedBy#lazy()} attribute.
+     */
+    static final String LAZY_ATTRIBUTE = "lazy";
+
+    /**
+     * the {@link ImplementedBy#scope()} attribute.
+     */
+    static final String SCOPE_ATTRIBUTE = "scope";
+
+    /**
+     * the {@link ImplementedBy#maxPoolSize()} attribute.
+     */
+    static final String MAX_POOL_SIZE_ATTRIBUTE = "maxPoolSize";
+
+    /**
+     * the default value of {@link ImplementedBy#maxPoolSize()}.
+     */
+    static final int DEFAULT_MAX_POOL_SIZE = 8;
+
+    /**
+     * index entries by binary name of annotated types.
+     */
+    private final Map<String, String> bindings;
+
+    /**
+     * Default constructor.
+     * @param bindings index entries by binary name of annotated types.
+     */
+    ImplementedByIndex(@Nonnull final Map<String, String> bindings) {
+        this.bindings = Collections.unmodifiableMap(bindings);
+    }
+
+    /**
+     * Loads and merges all index resources visible from class loader.
+     * @param classLoader the class loader to use
+     * @return Returns the merged index.
+     */
+    @Nonnull
+    public static ImplementedByIndex load(@Nullable final ClassLoader classLoader) {
+        Map<String, String> bindings = new HashMap<String, String>();
+        try {
+            Enumeration<URL> urls = (classLoader != null ? classLoader.getResources(INDEX_LOCATION)
+                    : ClassLoader.getSystemResources(INDEX_LOCATION));
+            while (urls.hasMoreElements()) {
+                Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(urls.nextElement()));
+                for (String type : properties.stringPropertyNames()) {
+                    bindings.put(type, properties.getProperty(type));
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to load " + INDEX_LOCATION + " index", ex);
+        }
+        return new ImplementedByIndex(bindings);
+    }
+
+    /**
+     * Indicates whether the type is bound to a default implementation.
+     * @param type the type
+     * @return Returns <code>true</code> if the type is annotated with {@link ImplementedBy}.
+     */
+    public boolean contains(@Nonnull final Class<?> type) {
+        return bindings.containsKey(type.getName());
+    }
+
+    /**
+     * Gets the class name of default implementation of a type.
+     * @param type the type
+     * @return Returns the binary name of default implementation or <code>null</code> if type is not indexed.
+     */
+    @Nullable
+    public String getImplementation(@Nonnull final Class<?> type) {
+        String entry = bindings.get(type.getName());
+        if (entry == null) {
+            return null;
+        }
+        int index = entry.indexOf(',');
+        return (index < 0 ? entry : entry.substring(0, index)).trim();
+    }
+
+    /**
+     * Gets the binding of a type, built from its index entry instead of reading the annotation of type.
+     * @param type the type
+     * @return Returns the {@link ImplementedBy} binding of type, or <code>null</code> if type is not indexed.
+     * @throws ClassNotFoundException if the default implementation is not visible from the type
+     */
+    @Nullable
+    public ImplementedBy getBinding(@Nonnull final Class<?> type) throws ClassNotFoundException {
+        String entry = bindings.get(type.getName());
+        if (entry == null) {
+            return null;
+        }
+        String[] tokens = StringUtils.commaDelimitedListToStringArray(entry);
+        Class<?> implementation = ClassUtils.forName(tokens[0].trim(), type.getClassLoader());
+        boolean lazy = false;
+        ImplementedByScope scope = ImplementedByScope.SINGLETON;
+        int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+        for (int i = 1; i < tokens.length; i++) {
+            String[] attribute = StringUtils.split(tokens[i], "=");
+            if (attribute == null) {
+                throw new IllegalStateException("Invalid attribute '" + tokens[i] + "' of " + type.getName()
+                        + " in " + INDEX_LOCATION);
+            }
+            String name = attribute[0].trim();
+            String value = attribute[1].trim();
+            if (LAZY_ATTRIBUTE.equals(name)) {
+                lazy = Boolean.parseBoolean(value);
+            } else if (SCOPE_ATTRIBUTE.equals(name)) {
+                scope = ImplementedByScope.valueOf(value);
+            } else if (MAX_POOL_SIZE_ATTRIBUTE.equals(name)) {
+                maxPoolSize = Integer.parseInt(value);
+            }
+        }
+        return new Binding(implementation, lazy, scope, maxPoolSize);
+    }
+
+    /**
+     * Gets the number of indexed types.
+     * @return Returns the number of indexed types.
+     */
+    public int size() {
+        return bindings.size();
+    }
+
+    /**
+     * {@link ImplementedBy} binding read from an index entry.
+     */
+    @SuppressWarnings("all")
+    private static final class Binding implements ImplementedBy {
+
+        /**
+         * the default implementation class.
+         */
+        private final Class<?> value;
+
+        /**
+         * indicating whether the default implementation is created on first method call only.
+         */
+        private final boolean lazy;
+
+        /**
+         * the scope of the default implementation.
+         */
+        private final ImplementedByScope scope;
+
+        /**
+         * the maximum number of instances of a pooled default implementation.
+         */
+        private final int maxPoolSize;
+
+        /**
+         * Default constructor.
+         * @param value the default implementation class
+         * @param lazy indicating whether the default implementation is created on first method call only
+         * @param scope the scope of the default implementation
+         * @param maxPoolSize the maximum number of instances of a pooled default implementation
+         */
+        Binding(@Nonnull final Class<?> value, final boolean lazy, @Nonnull final ImplementedByScope scope,
+                final int maxPoolSize) {
+            this.value = value;
+            this.lazy = lazy;
+            this.scope = scope;
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Class<?> value() {
+            return value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean lazy() {
+            return lazy;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public ImplementedByScope scope() {
+            return scope;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int maxPoolSize() {
+            return maxPoolSize;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return ImplementedBy.class;
+        }
+
+        /**
+         * Compares with any {@link ImplementedBy} annotation, as specified by {@link Annotation#equals(Object)}.
+         * @param obj the object to compare
+         * @return Returns <code>true</code> if the attributes are equal.
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof ImplementedBy)) {
+                return false;
+            }
+            ImplementedBy other = (ImplementedBy) obj;
+            return value == other.value() && lazy == other.lazy() && scope == other.scope()
+                    && maxPoolSize == other.maxPoolSize();
+        }
+
+        /**
+         * Computes the hash code specified by {@link Annotation#hashCode()}.
+         * @return Returns the hash code.
+         */
+        @Override
+        public int hashCode() {
+            return (127 * "value".hashCode() ^ value.hashCode())
+                    + (127 * "lazy".hashCode() ^ Boolean.valueOf(lazy).hashCode())
+                    + (127 * "scope".hashCode() ^ scope.hashCode())
+                    + (127 * "maxPoolSize".hashCode() ^ Integer.valueOf(maxPoolSize).hashCode());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "@" + ImplementedBy.class.getName() + "(value=" + value + ", lazy=" + lazy + ", scope=" + scope
+                    + ", maxPoolSize=" + maxPoolSize + ")";
+        }
+    }
+}
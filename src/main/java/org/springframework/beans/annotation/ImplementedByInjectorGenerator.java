@@ -0,0 +1,399 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.InjectionMetadata;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Build time generator of {@link GeneratedInjector} sources for compiled bean classes.
+ * <p>The generator derives the injection points and candidate constructors of each class as
+ * {@link ExtendAutowiredAnnotationBeanPostProcessor} does at runtime, and writes an injector setting the
+ * fields and calling the methods directly. Injection points not accessible from the package of their class
+ * (private member, inaccessible type, final field) keep being injected through reflection, and classes without
+ * any accessible injection point nor autowired constructor, as those following the usual style of private
+ * injected fields, are skipped.</p>
+ * <p>Injectors must be generated after each compilation of their classes: an injector whose class gained, lost
+ * or changed an annotated member since is detected as stale at runtime and not used.</p>
+ * <p>Run it after the compilation, e.g. with the exec-maven-plugin, then compile the generated sources:</p>
+ * <pre>
+ * java org.springframework.beans.annotation.ImplementedByInjectorGenerator &lt;output directory&gt;
+ *      &lt;classes directory or class name&gt;...
+ * </pre>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+public final class ImplementedByInjectorGenerator {
+
+    /**
+     * log instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImplementedByInjectorGenerator.class);
+
+    /**
+     * the directory of generated sources.
+     */
+    private final File outputDirectory;
+
+    /**
+     * the class loader of bean classes.
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * the post-processor deriving the injection points.
+     */
+    private final ExtendAutowiredAnnotationBeanPostProcessor processor =
+            new ExtendAutowiredAnnotationBeanPostProcessor();
+
+    /**
+     * Default constructor.
+     * @param outputDirectory the directory of generated sources
+     * @param classLoader the class loader of bean classes
+     */
+    public ImplementedByInjectorGenerator(@Nonnull final File outputDirectory,
+            @Nonnull final ClassLoader classLoader) {
+        this.outputDirectory = outputDirectory;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Generates the injectors of classes.
+     * @param args the output directory, followed by classes directories or class names
+     * @throws Exception if a class can not be loaded or a source can not be written
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: " + ImplementedByInjectorGenerator.class.getName()
+                    + " <output directory> <classes directory or class name>...");
+        }
+        ImplementedByInjectorGenerator generator =
+                new ImplementedByInjectorGenerator(new File(args[0]), ClassUtils.getDefaultClassLoader());
+        int count = 0;
+        for (int i = 1; i < args.length; i++) {
+            File directory = new File(args[i]);
+            if (directory.isDirectory()) {
+                count += generator.generateAll(directory);
+            } else if (generator.generate(ClassUtils.forName(args[i], generator.classLoader))) {
+                count++;
+            }
+        }
+        LOGGER.info("Generated " + count + " injectors in " + generator.outputDirectory);
+    }
+
+    /**
+     * Generates the injectors of all classes of a classes directory.
+     * @param classesDirectory the root of compiled classes
+     * @return Returns the number of generated injectors.
+     * @throws IOException if a source can not be written
+     */
+    public int generateAll(@Nonnull final File classesDirectory) throws IOException {
+        return generateAll(classesDirectory, "");
+    }
+
+    /**
+     * Generates the injectors of classes of a package directory and its sub-directories.
+     * @param directory the package directory
+     * @param packagePrefix the package name followed by a dot, empty for the default package
+     * @return Returns the number of generated injectors.
+     * @throws IOException if a source can not be written
+     */
+    private int generateAll(@Nonnull final File directory, @Nonnull final String packagePrefix) throws IOException {
+        int count = 0;
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return count;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                count += generateAll(file, packagePrefix + name + '.');
+            } else if (name.endsWith(ClassUtils.CLASS_FILE_SUFFIX) && !name.contains(GeneratedInjector.SUFFIX)) {
+                String className = packagePrefix + name.substring(0, name.length() - 6);
+                Class<?> clazz;
+                try {
+                    clazz = ClassUtils.forName(className, this.classLoader);
+                } catch (Throwable ex) {
+                    LOGGER.debug("Skipping " + className + ", the class can not be loaded", ex);
+                    continue;
+                }
+                if (generate(clazz)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Generates the injector of a class.
+     * @param clazz the bean class
+     * @return Returns <code>true</code> if an injector has been written.
+     * @throws IOException if the source can not be written
+     */
+    public boolean generate(@Nonnull final Class<?> clazz) throws IOException {
+        String source = generateSource(clazz);
+        if (source == null) {
+            return false;
+        }
+        String packageName = ClassUtils.getPackageName(clazz);
+        File directory = new File(this.outputDirectory, packageName.replace('.', File.separatorChar));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory);
+        }
+        File file = new File(directory, getInjectorSimpleName(clazz) + ".java");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+        return true;
+    }
+
+    /**
+     * Generates the source of injector of a class.
+     * @param clazz the bean class
+     * @return Returns the source of injector, or <code>null</code> if the class has no injection point or can not
+     *         be injected without reflection.
+     */
+    @Nullable
+    String generateSource(@Nonnull final Class<?> clazz) {
+        if (clazz.isInterface() || clazz.isEnum() || Modifier.isAbstract(clazz.getModifiers())
+                || clazz.getCanonicalName() == null
+                || (clazz.getEnclosingClass() != null && !Modifier.isStatic(clazz.getModifiers()))) {
+            return null;
+        }
+        String packageName = ClassUtils.getPackageName(clazz);
+        InjectionMetadata.InjectedElement[] elements;
+        Constructor<?>[] constructors;
+        try {
+            elements = processor.introspectElements(clazz);
+            constructors = processor.introspectConstructors(clazz);
+        } catch (Throwable ex) {
+            LOGGER.debug("Skipping " + clazz.getName() + ", the class can not be introspected", ex);
+            return null;
+        }
+        if (elements.length == 0 && constructors.length == 0) {
+            return null;
+        }
+        if (!isAccessible(clazz, packageName)) {
+            LOGGER.info("Skipping " + clazz.getName() + ", the class is not accessible from its package");
+            return null;
+        }
+        // inaccessible members are listed as reflective, the injector sets the others directly.
+        boolean[] generated = new boolean[elements.length];
+        int generatedCount = 0;
+        for (int i = 0; i < elements.length; i++) {
+            generated[i] = isAccessible(elements[i].getMember(), packageName);
+            if (generated[i]) {
+                generatedCount++;
+            } else {
+                LOGGER.debug(elements[i].getMember() + " is not accessible from its package, injected through "
+                        + "reflection");
+            }
+        }
+        if (generatedCount == 0 && constructors.length == 0) {
+            LOGGER.info("Skipping " + clazz.getName() + ", no injection point is accessible from its package");
+            return null;
+        }
+        WarmStartCache.Member[] members = ExtendAutowiredAnnotationBeanPostProcessor.toMembers(elements);
+
+        StringBuilder sb = new StringBuilder();
+        if (packageName.length() > 0) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("/**\n * Injector of {@link ").append(clazz.getCanonicalName()).append("}.\n");
+        sb.append(" * <p>Generated by ").append(ImplementedByInjectorGenerator.class.getName())
+                .append(", do not edit.</p>\n */\n");
+        sb.append("public final class ").append(getInjectorSimpleName(clazz)).append(" extends ")
+                .append(GeneratedInjector.class.getName()).append(" {\n\n");
+
+        sb.append("    public ").append(getInjectorSimpleName(clazz)).append("() {\n");
+        sb.append("        super(").append(quote(processor.fingerprintInjectionPoints(clazz)))
+                .append(", new InjectionPoint[] {");
+        for (int i = 0; i < members.length; i++) {
+            WarmStartCache.Member member = members[i];
+            sb.append(i > 0 ? ",\n" : "\n").append("                ");
+            if (member.isMethod()) {
+                sb.append(generated[i] ? "method(" : "reflectiveMethod(")
+                        .append(quote(member.getDeclaringClass())).append(", ")
+                        .append(quote(member.getName())).append(", ").append(member.isRequired()).append(", ")
+                        .append(member.isProperty());
+                for (String parameterType : member.getParameterTypes()) {
+                    sb.append(", ").append(quote(parameterType));
+                }
+                sb.append(')');
+            } else {
+                sb.append(generated[i] ? "field(" : "reflectiveField(")
+                        .append(quote(member.getDeclaringClass())).append(", ")
+                        .append(quote(member.getName())).append(", ").append(member.isRequired()).append(')');
+            }
+        }
+        sb.append(" },\n            new String[][] {");
+        for (int i = 0; i < constructors.length; i++) {
+            sb.append(i > 0 ? ",\n" : "\n").append("                {");
+            String[] parameterTypes = WarmStartCache.getNames(constructors[i].getParameterTypes());
+            for (int j = 0; j < parameterTypes.length; j++) {
+                sb.append(j > 0 ? ", " : "").append(quote(parameterTypes[j]));
+            }
+            sb.append(" }");
+        }
+        sb.append(" });\n    }\n\n");
+
+        sb.append("    @Override\n    @SuppressWarnings({\"unchecked\", \"rawtypes\" })\n");
+        sb.append("    protected void setField(final Object bean, final int index, final Object value) {\n");
+        sb.append("        switch (index) {\n");
+        for (int i = 0; i < elements.length; i++) {
+            if (generated[i] && elements[i].getMember() instanceof Field) {
+                Field field = (Field) elements[i].getMember();
+                sb.append("        case ").append(i).append(":\n");
+                sb.append("            ((").append(field.getDeclaringClass().getCanonicalName()).append(") bean).")
+                        .append(field.getName()).append(" = (").append(getCastName(field.getType()))
+                        .append(") value;\n");
+                sb.append("            break;\n");
+            }
+        }
+        sb.append("        default:\n");
+        sb.append("            throw new IllegalArgumentException(\"No injected field at \" + index);\n");
+        sb.append("        }\n    }\n\n");
+
+        sb.append("    @Override\n    @SuppressWarnings({\"unchecked\", \"rawtypes\" })\n");
+        sb.append("    protected void invokeMethod(final Object bean, final int index, final Object[] arguments)\n");
+        sb.append("            throws Throwable {\n");
+        sb.append("        switch (index) {\n");
+        for (int i = 0; i < elements.length; i++) {
+            if (generated[i] && elements[i].getMember() instanceof Method) {
+                Method method = (Method) elements[i].getMember();
+                sb.append("        case ").append(i).append(":\n");
+                sb.append("            ((").append(method.getDeclaringClass().getCanonicalName()).append(") bean).")
+                        .append(method.getName()).append('(');
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                for (int j = 0; j < parameterTypes.length; j++) {
+                    sb.append(j > 0 ? ", " : "").append('(').append(getCastName(parameterTypes[j]))
+                            .append(") arguments[").append(j).append(']');
+                }
+                sb.append(");\n");
+                sb.append("            break;\n");
+            }
+        }
+        sb.append("        default:\n");
+        sb.append("            throw new IllegalArgumentException(\"No injected method at \" + index);\n");
+        sb.append("        }\n    }\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Gets the simple name of injector of a class, nested classes keep their binary name.
+     * @param clazz the bean class
+     * @return Returns the simple name of injector.
+     */
+    @Nonnull
+    private static String getInjectorSimpleName(@Nonnull final Class<?> clazz) {
+        String name = clazz.getName();
+        return name.substring(name.lastIndexOf('.') + 1) + GeneratedInjector.SUFFIX;
+    }
+
+    /**
+     * Gets the name of a type in a cast, the wrapper of primitive types.
+     * @param type the type
+     * @return Returns the canonical name of type or of its wrapper.
+     */
+    @Nonnull
+    private static String getCastName(@Nonnull final Class<?> type) {
+        return ClassUtils.resolvePrimitiveIfNecessary(type).getCanonicalName();
+    }
+
+    /**
+     * Quotes a class or member name as a Java string literal.
+     * @param name the name, without character to escape
+     * @return Returns the string literal.
+     */
+    @Nonnull
+    private static String quote(@Nonnull final String name) {
+        return '"' + name + '"';
+    }
+
+    /**
+     * Indicates whether an injected member can be used from a package without reflection.
+     * @param member the injected field or method
+     * @param packageName the package
+     * @return Returns <code>true</code> if the member and its types are accessible.
+     */
+    private static boolean isAccessible(@Nonnull final Member member, @Nonnull final String packageName) {
+        int modifiers = member.getModifiers();
+        if (Modifier.isPrivate(modifiers) || !isAccessible(member.getDeclaringClass(), packageName)) {
+            return false;
+        }
+        if (!Modifier.isPublic(modifiers)
+                && !packageName.equals(ClassUtils.getPackageName(member.getDeclaringClass()))) {
+            return false;
+        }
+        if (member instanceof Field) {
+            Field field = (Field) member;
+            return !Modifier.isFinal(modifiers) && isAccessible(field.getType(), packageName);
+        }
+        for (Class<?> parameterType : ((Method) member).getParameterTypes()) {
+            if (!isAccessible(parameterType, packageName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indicates whether a type can be named from a package.
+     * @param type the type
+     * @param packageName the package
+     * @return Returns <code>true</code> if the type and its enclosing classes are accessible.
+     */
+    private static boolean isAccessible(@Nonnull final Class<?> type, @Nonnull final String packageName) {
+        Class<?> clazz = type;
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+        if (clazz.getCanonicalName() == null) {
+            return false;
+        }
+        boolean samePackage = packageName.equals(ClassUtils.getPackageName(clazz));
+        for (Class<?> c = clazz; c != null; c = c.getDeclaringClass()) {
+            int modifiers = c.getModifiers();
+            if (Modifier.isPrivate(modifiers) || (!Modifier.isPublic(modifiers) && !samePackage)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * JSR-269 annotation processor writing the {@value ImplementedByIndex#INDEX_LOCATION} index of
+ * interface to default implementation bindings declared by {@link ImplementedBy}.
+ * <p>The processor is registered as a service, it runs as soon as this library is in the compile classpath.
+ * The entries of a previous index in the output directory are rebuilt from the types of the current
+ * compilation: types not compiled again keep their binding, while deleted types and types no longer
+ * annotated drop out.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+// all compilations, so that an index whose types are deleted or no longer annotated is rewritten.
+@SupportedAnnotationTypes("*")
+public class ImplementedByProcessor extends AbstractProcessor {
+
+    /**
+     * bindings collected over all rounds, sorted for reproducible output.
+     */
+    private final Map<String, String> bindings = new TreeMap<String, String>();
+
+    /**
+     * indicating whether the entries of previous index have been read.
+     */
+    private boolean initialized = false;
+
+    /**
+     * indicating whether an index of a previous compilation exists, rewritten even if empty.
+     */
+    private boolean indexExists = false;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (!initialized) {
+            // the index of a previous compilation, checked against the types visible now.
+            initialized = true;
+            for (String type : readExistingIndex().keySet()) {
+                TypeElement element = findTypeElement(type);
+                if (element != null) {
+                    addBinding(element);
+                }
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(ImplementedBy.class)) {
+            if (element instanceof TypeElement) {
+                addBinding((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && (!bindings.isEmpty() || indexExists)) {
+            try {
+                writeIndex();
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + ImplementedByIndex.INDEX_LOCATION + ": " + ex);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the binding declared on a type, if annotated.
+     * @param element the type
+     */
+    private void addBinding(final TypeElement element) {
+        String annotationName = ImplementedBy.class.getName();
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                TypeMirror implementation = null;
+                boolean lazy = false;
+                String scope = ImplementedByScope.SINGLETON.name();
+                int maxPoolSize = ImplementedByIndex.DEFAULT_MAX_POOL_SIZE;
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation
+                        .getElementValues().entrySet()) {
+                    String name = entry.getKey().getSimpleName().toString();
+                    Object value = entry.getValue().getValue();
+                    if ("value".equals(name)) {
+                        implementation = (TypeMirror) value;
+                    } else if (ImplementedByIndex.LAZY_ATTRIBUTE.equals(name)) {
+                        lazy = (Boolean) value;
+                    } else if (ImplementedByIndex.SCOPE_ATTRIBUTE.equals(name)) {
+                        scope = ((VariableElement) value).getSimpleName().toString();
+                    } else if (ImplementedByIndex.MAX_POOL_SIZE_ATTRIBUTE.equals(name)) {
+                        maxPoolSize = (Integer) value;
+                    }
+                }
+                if (implementation instanceof DeclaredType) {
+                    bindings.put(getBinaryName(element), format(
+                        getBinaryName((TypeElement) ((DeclaredType) implementation).asElement()), lazy, scope,
+                        maxPoolSize));
+                }
+            }
+        }
+    }
+
+    /**
+     * Formats an index entry.
+     * @param implementation the binary name of default implementation
+     * @param lazy the {@link ImplementedBy#lazy()} attribute
+     * @param scope the name of {@link ImplementedBy#scope()} attribute
+     * @param maxPoolSize the {@link ImplementedBy#maxPoolSize()} attribute
+     * @return Returns the index entry, without the attributes having their default value.
+     */
+    private static String format(final String implementation, final boolean lazy, final String scope,
+                                 final int maxPoolSize) {
+        StringBuilder sb = new StringBuilder(implementation);
+        if (lazy) {
+            sb.append(',').append(ImplementedByIndex.LAZY_ATTRIBUTE).append("=true");
+        }
+        if (!ImplementedByScope.SINGLETON.name().equals(scope)) {
+            sb.append(',').append(ImplementedByIndex.SCOPE_ATTRIBUTE).append('=').append(scope);
+        }
+        if (maxPoolSize != ImplementedByIndex.DEFAULT_MAX_POOL_SIZE) {
+            sb.append(',').append(ImplementedByIndex.MAX_POOL_SIZE_ATTRIBUTE).append('=').append(maxPoolSize);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the binary name of type, as returned by {@link Class#getName()}.
+     * @param type the type
+     * @return Returns the binary name of type.
+     */
+    private String getBinaryName(final TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    /**
+     * Finds a type by its binary name, as written in the index.
+     * <p>A <code>$</code> of the binary name either separates a nested type from its enclosing type or belongs
+     * to the name of a type, so the enclosing types are searched from the longest candidate name, and the found
+     * type is checked against the binary name.</p>
+     * @param binaryName the binary name of type
+     * @return Returns the type, or <code>null</code> if no type has this binary name.
+     */
+    private TypeElement findTypeElement(final String binaryName) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(binaryName);
+        if (type != null && getBinaryName(type).equals(binaryName)) {
+            return type;
+        }
+        for (int i = binaryName.lastIndexOf('$'); i > 0; i = binaryName.lastIndexOf('$', i - 1)) {
+            TypeElement enclosingType = findTypeElement(binaryName.substring(0, i));
+            if (enclosingType == null) {
+                continue;
+            }
+            String simpleName = binaryName.substring(i + 1);
+            for (Element enclosed : enclosingType.getEnclosedElements()) {
+                if (enclosed instanceof TypeElement && enclosed.getSimpleName().contentEquals(simpleName)
+                        && getBinaryName((TypeElement) enclosed).equals(binaryName)) {
+                    return (TypeElement) enclosed;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes the index.
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeIndex() throws IOException {
+        FileObject resource =
+                processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    ImplementedByIndex.INDEX_LOCATION);
+        OutputStream out = resource.openOutputStream();
+        try {
+            Writer writer = new OutputStreamWriter(out, "ISO-8859-1");
+            writer.write("# Generated by " + ImplementedByProcessor.class.getName() + "\n");
+            for (Map.Entry<String, String> entry : bindings.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+            writer.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the index written by a previous compilation.
+     * @return Returns the entries of existing index, empty if none.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private Map<String, String> readExistingIndex() {
+        Properties properties = new Properties();
+        try {
+            FileObject resource =
+                    processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                        ImplementedByIndex.INDEX_LOCATION);
+            InputStream in = resource.openInputStream();
+            try {
+                properties.load(in);
+                indexExists = true;
+            } finally {
+                in.close();
+            }
+        } catch (IOException ex) {
+            // no previous index - simply skip.
+        }
+        return (Map) properties;
+    }
+}
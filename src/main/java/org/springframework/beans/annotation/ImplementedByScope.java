@@ -0,0 +1,45 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+/**
+ * Scope of a default implementation declared by {@link ImplementedBy}.
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+public enum ImplementedByScope {
+
+    /**
+     * one instance shared by all injection points (default).
+     */
+    SINGLETON,
+
+    /**
+     * a new instance per injection point.
+     */
+    PROTOTYPE,
+
+    /**
+     * one instance per thread, behind a proxy delegating each call to the instance of the calling thread.
+     */
+    THREAD,
+
+    /**
+     * a bounded pool of instances, behind a proxy borrowing an instance for the duration of each call.
+     * Callers wait when all instances are in use.
+     */
+    POOLED
+}
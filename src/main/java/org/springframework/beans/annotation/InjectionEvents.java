@@ -0,0 +1,131 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Events emitted by an {@link ExtendAutowiredAnnotationBeanPostProcessor} to an event recorder.
+ * <p>Each event is begun before the recorded work and ended after it. <code>begin</code> methods return
+ * <code>null</code> when the event type is disabled, the work is then not recorded at all.</p>
+ * <p>The only implementation records Java Flight Recorder events, it is loaded by name so that the
+ * post-processor runs on JVMs without the <code>jdk.jfr</code> API.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ * @see ExtendAutowiredAnnotationBeanPostProcessor#setFlightRecorderEnabled(boolean)
+ */
+abstract class InjectionEvents {
+
+    /**
+     * log instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(InjectionEvents.class);
+
+    /**
+     * the class of Java Flight Recorder events.
+     */
+    private static final String FLIGHT_RECORDER_EVENTS_CLASS_NAME =
+            "org.springframework.beans.annotation.FlightRecorderInjectionEvents";
+
+    /**
+     * Creates the Java Flight Recorder events.
+     * @return Returns the events, or <code>null</code> if the JVM does not provide the <code>jdk.jfr</code> API.
+     */
+    @Nullable
+    static InjectionEvents createFlightRecorderEvents() {
+        ClassLoader classLoader = InjectionEvents.class.getClassLoader();
+        if (!ClassUtils.isPresent("jdk.jfr.Event", classLoader)) {
+            return null;
+        }
+        try {
+            return (InjectionEvents) BeanUtils.instantiateClass(
+                ClassUtils.forName(FLIGHT_RECORDER_EVENTS_CLASS_NAME, classLoader));
+        } catch (Throwable ex) {
+            LOGGER.debug("Java Flight Recorder events are not available", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Begins the build of injection metadata of a class.
+     * @return Returns the event, or <code>null</code> if disabled.
+     */
+    @Nullable
+    abstract Object beginMetadataBuild();
+
+    /**
+     * Ends the build of injection metadata of a class.
+     * @param event the event returned by {@link #beginMetadataBuild()}
+     * @param beanClass the introspected class
+     */
+    abstract void endMetadataBuild(@Nonnull Object event, @Nonnull Class<?> beanClass);
+
+    /**
+     * Begins the resolution of a dependency.
+     * @return Returns the event, or <code>null</code> if disabled.
+     */
+    @Nullable
+    abstract Object beginResolution();
+
+    /**
+     * Ends the resolution of a dependency.
+     * @param event the event returned by {@link #beginResolution()}
+     * @param dependencyType the type of dependency
+     * @param beanName the name of the bean which declares the dependency
+     * @param value the resolved value, <code>null</code> if none
+     * @param failure the exception thrown by the resolution, <code>null</code> if none
+     */
+    abstract void endResolution(@Nonnull Object event, @Nonnull Class<?> dependencyType, @Nullable String beanName,
+                                @Nullable Object value, @Nullable Throwable failure);
+
+    /**
+     * Begins the registration of a default implementation.
+     * @return Returns the event, or <code>null</code> if disabled.
+     */
+    @Nullable
+    abstract Object beginDefaultRegistration();
+
+    /**
+     * Ends the registration of a default implementation.
+     * @param event the event returned by {@link #beginDefaultRegistration()}
+     * @param declaredType the type annotated with {@link ImplementedBy}
+     * @param implementation the chosen implementation
+     * @param beanName the name of registered autowire candidate
+     */
+    abstract void endDefaultRegistration(@Nonnull Object event, @Nonnull Class<?> declaredType,
+                                         @Nonnull Class<?> implementation, @Nonnull String beanName);
+
+    /**
+     * Begins the injection of a bean.
+     * @return Returns the event, or <code>null</code> if disabled.
+     */
+    @Nullable
+    abstract Object beginInjection();
+
+    /**
+     * Ends the injection of a bean.
+     * @param event the event returned by {@link #beginInjection()}
+     * @param beanClass the class of bean
+     * @param beanName the name of bean, <code>null</code> if injected outside of the factory
+     */
+    abstract void endInjection(@Nonnull Object event, @Nonnull Class<?> beanClass, @Nullable String beanName);
+}
@@ -0,0 +1,312 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Injection statistics of an {@link ExtendAutowiredAnnotationBeanPostProcessor}, exposed as standard MBean.
+ * <p>Counters are striped, so that concurrent bean creations do not contend on them.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ * @see ExtendAutowiredAnnotationBeanPostProcessor#setStatisticsEnabled(boolean)
+ */
+public class InjectionStatistics implements InjectionStatisticsMBean {
+
+    /**
+     * the observed post-processor.
+     */
+    private final ExtendAutowiredAnnotationBeanPostProcessor processor;
+
+    /**
+     * number of injection metadata lookups.
+     */
+    private final StripedCounter metadataLookups = new StripedCounter();
+
+    /**
+     * number of injection metadata built.
+     */
+    private final StripedCounter metadataBuilds = new StripedCounter();
+
+    /**
+     * time spent building injection metadata, in nanoseconds.
+     */
+    private final StripedCounter metadataBuildTime = new StripedCounter();
+
+    /**
+     * number of default implementations registered.
+     */
+    private final StripedCounter registeredDefaults = new StripedCounter();
+
+    /**
+     * number of dependencies resolved.
+     */
+    private final StripedCounter resolutions = new StripedCounter();
+
+    /**
+     * time spent resolving dependencies, in nanoseconds.
+     */
+    private final StripedCounter resolutionTime = new StripedCounter();
+
+    /**
+     * number of beans injected.
+     */
+    private final StripedCounter injections = new StripedCounter();
+
+    /**
+     * time spent injecting beans, in nanoseconds.
+     */
+    private final StripedCounter injectionTime = new StripedCounter();
+
+    /**
+     * number of exceptions caught and ignored.
+     */
+    private final StripedCounter swallowedExceptions = new StripedCounter();
+
+    /**
+     * number of lookups of {@link ImplementedBy} annotation.
+     */
+    private final StripedCounter implementedByLookups = new StripedCounter();
+
+    /**
+     * number of lookups of {@link ImplementedBy} annotation reading the annotations of class.
+     */
+    private final StripedCounter implementedByReflections = new StripedCounter();
+
+    /**
+     * number of fields and methods injected through generated injectors.
+     */
+    private final StripedCounter generatedInjections = new StripedCounter();
+
+    /**
+     * Default constructor.
+     * @param processor the observed post-processor
+     */
+    InjectionStatistics(@Nonnull final ExtendAutowiredAnnotationBeanPostProcessor processor) {
+        this.processor = processor;
+    }
+
+    /**
+     * Records a lookup of injection metadata.
+     */
+    void metadataLookup() {
+        metadataLookups.increment();
+    }
+
+    /**
+     * Records the build of injection metadata.
+     * @param startTime the start time given by {@link System#nanoTime()}.
+     */
+    void metadataBuilt(final long startTime) {
+        metadataBuildTime.add(System.nanoTime() - startTime);
+        metadataBuilds.increment();
+    }
+
+    /**
+     * Records the registration of a default implementation.
+     */
+    void defaultRegistered() {
+        registeredDefaults.increment();
+    }
+
+    /**
+     * Records the resolution of a dependency.
+     * @param startTime the start time given by {@link System#nanoTime()}.
+     */
+    void dependencyResolved(final long startTime) {
+        resolutionTime.add(System.nanoTime() - startTime);
+        resolutions.increment();
+    }
+
+    /**
+     * Records the injection of a bean.
+     * @param startTime the start time given by {@link System#nanoTime()}.
+     */
+    void beanInjected(final long startTime) {
+        injectionTime.add(System.nanoTime() - startTime);
+        injections.increment();
+    }
+
+    /**
+     * Records an exception caught and ignored.
+     */
+    void exceptionSwallowed() {
+        swallowedExceptions.increment();
+    }
+
+    /**
+     * Records a lookup of {@link ImplementedBy} annotation.
+     */
+    void implementedByLookup() {
+        implementedByLookups.increment();
+    }
+
+    /**
+     * Records a lookup of {@link ImplementedBy} annotation reading the annotations of class.
+     */
+    void implementedByReflection() {
+        implementedByReflections.increment();
+    }
+
+    /**
+     * Records the injection of a field or method through its generated injector.
+     */
+    void generatedInjection() {
+        generatedInjections.increment();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMetadataCacheSize() {
+        return processor.getMetadataCacheSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMetadataCacheHits() {
+        return Math.max(0L, metadataLookups.sum() - metadataBuilds.sum());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMetadataCacheMisses() {
+        return metadataBuilds.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getMetadataCacheHitRatio() {
+        long lookups = metadataLookups.sum();
+        return (lookups == 0 ? 0.0 : (double) getMetadataCacheHits() / lookups);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMetadataBuildTime() {
+        return TimeUnit.NANOSECONDS.toMillis(metadataBuildTime.sum());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRegisteredDefaultCount() {
+        return registeredDefaults.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDependencyResolutionCount() {
+        return resolutions.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDependencyResolutionTime() {
+        return TimeUnit.NANOSECONDS.toMillis(resolutionTime.sum());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getInjectionCount() {
+        return injections.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getInjectionTime() {
+        return TimeUnit.NANOSECONDS.toMillis(injectionTime.sum());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getSwallowedExceptionCount() {
+        return swallowedExceptions.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getResolutionFallbackCount() {
+        return processor.getResolutionFallbackCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getImplementedByLookupCount() {
+        return implementedByLookups.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getImplementedByReflectionCount() {
+        return implementedByReflections.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getGeneratedInjectionCount() {
+        return generatedInjections.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        metadataLookups.reset();
+        metadataBuilds.reset();
+        metadataBuildTime.reset();
+        registeredDefaults.reset();
+        resolutions.reset();
+        resolutionTime.reset();
+        injections.reset();
+        injectionTime.reset();
+        swallowedExceptions.reset();
+        implementedByLookups.reset();
+        implementedByReflections.reset();
+        generatedInjections.reset();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+/**
+ * JMX management interface of {@link InjectionStatistics}.
+ * <p>Times are cumulated over all threads, nested operations are included in the time of their caller
+ * (e.g. dependency resolution in injection).</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+public interface InjectionStatisticsMBean {
+
+    /**
+     * @return Returns the number of classes in the injection metadata cache.
+     */
+    int getMetadataCacheSize();
+
+    /**
+     * @return Returns the number of injection metadata lookups served by the cache.
+     */
+    long getMetadataCacheHits();
+
+    /**
+     * @return Returns the number of injection metadata lookups building the metadata.
+     */
+    long getMetadataCacheMisses();
+
+    /**
+     * @return Returns the ratio of injection metadata lookups served by the cache, between 0 and 1.
+     */
+    double getMetadataCacheHitRatio();
+
+    /**
+     * @return Returns the time spent building injection metadata, in milliseconds.
+     */
+    long getMetadataBuildTime();
+
+    /**
+     * @return Returns the number of default implementations registered.
+     */
+    long getRegisteredDefaultCount();
+
+    /**
+     * @return Returns the number of dependencies resolved.
+     */
+    long getDependencyResolutionCount();
+
+    /**
+     * @return Returns the time spent resolving dependencies, in milliseconds.
+     */
+    long getDependencyResolutionTime();
+
+    /**
+     * @return Returns the number of beans injected.
+     */
+    long getInjectionCount();
+
+    /**
+     * @return Returns the time spent injecting beans, in milliseconds.
+     */
+    long getInjectionTime();
+
+    /**
+     * @return Returns the number of exceptions caught and ignored.
+     */
+    long getSwallowedExceptionCount();
+
+    /**
+     * @return Returns the number of resolutions falling back to the default implementation after an exception.
+     */
+    long getResolutionFallbackCount();
+
+    /**
+     * @return Returns the number of lookups of {@link ImplementedBy} annotation on dependency and parameter types.
+     */
+    long getImplementedByLookupCount();
+
+    /**
+     * @return Returns the number of lookups of {@link ImplementedBy} annotation which read the annotations of class,
+     *         the other lookups being skipped or answered from cache.
+     */
+    long getImplementedByReflectionCount();
+
+    /**
+     * @return Returns the number of fields and methods injected through generated injectors, the others being
+     *         injected through reflection.
+     */
+    long getGeneratedInjectionCount();
+
+    /**
+     * Resets all counters.
+     */
+    void reset();
+}
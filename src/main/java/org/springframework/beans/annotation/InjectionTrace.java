@@ -0,0 +1,268 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Timeline of the work of an {@link ExtendAutowiredAnnotationBeanPostProcessor}, written in the Chrome trace
+ * event format, readable by <code>chrome://tracing</code> and Perfetto.
+ * <p>Spans are complete events appended to a lock-free queue by the recording threads. Nested spans of a thread
+ * (e.g. the resolution of a dependency during the injection of a bean) are rendered nested by the viewers.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ * @see ExtendAutowiredAnnotationBeanPostProcessor#setTraceFile(File)
+ */
+final class InjectionTrace {
+
+    /**
+     * span of injection metadata build.
+     */
+    static final String METADATA = "metadata";
+
+    /**
+     * span of candidate constructors determination.
+     */
+    static final String CONSTRUCTORS = "constructors";
+
+    /**
+     * span of dependency resolution.
+     */
+    static final String RESOLUTION = "resolution";
+
+    /**
+     * span of default implementation registration.
+     */
+    static final String DEFAULT_REGISTRATION = "default registration";
+
+    /**
+     * span of bean injection.
+     */
+    static final String INJECTION = "injection";
+
+    /**
+     * maximum number of recorded spans, later spans are dropped.
+     */
+    static final int MAX_SPANS = 1000000;
+
+    /**
+     * the category of all spans.
+     */
+    private static final String CATEGORY = "implementedby";
+
+    /**
+     * the time origin of spans, given by {@link System#nanoTime()}.
+     */
+    private final long origin = System.nanoTime();
+
+    /**
+     * the recorded spans.
+     */
+    private final Queue<Span> spans = new ConcurrentLinkedQueue<Span>();
+
+    /**
+     * number of recorded spans.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Records a span ending now.
+     * @param name the name of span
+     * @param subject the bean, class or dependency concerned
+     * @param startTime the start time given by {@link System#nanoTime()}.
+     */
+    void record(@Nonnull final String name, @Nullable final String subject, final long startTime) {
+        long endTime = System.nanoTime();
+        if (size.incrementAndGet() > MAX_SPANS) {
+            size.decrementAndGet();
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        spans.add(new Span(name, subject, thread.getId(), thread.getName(), startTime - origin, endTime - startTime));
+    }
+
+    /**
+     * @return Returns the number of recorded spans.
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Writes the recorded spans as a Chrome trace file.
+     * @param file the trace file
+     * @throws IOException if the file can not be written
+     */
+    void write(@Nonnull final File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory " + parent);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            write(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes the recorded spans in the Chrome trace event format.
+     * @param writer the destination
+     * @throws IOException if an I/O error occurs
+     */
+    void write(@Nonnull final Writer writer) throws IOException {
+        StringBuilder sb = new StringBuilder(256);
+        Set<Long> threads = new HashSet<Long>();
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean first = true;
+        for (Span span : spans) {
+            sb.setLength(0);
+            if (!first) {
+                sb.append(",\n");
+            }
+            first = false;
+            if (threads.add(span.threadId)) {
+                sb.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(span.threadId)
+                        .append(",\"args\":{\"name\":");
+                appendString(sb, span.threadName);
+                sb.append("}},\n");
+            }
+            sb.append("{\"name\":");
+            appendString(sb, span.name);
+            sb.append(",\"cat\":\"").append(CATEGORY).append("\",\"ph\":\"X\",\"pid\":1,\"tid\":")
+                    .append(span.threadId).append(",\"ts\":");
+            appendMicros(sb, span.start);
+            sb.append(",\"dur\":");
+            appendMicros(sb, span.duration);
+            if (span.subject != null) {
+                sb.append(",\"args\":{\"subject\":");
+                appendString(sb, span.subject);
+                sb.append('}');
+            }
+            sb.append('}');
+            writer.write(sb.toString());
+        }
+        writer.write("]}\n");
+    }
+
+    /**
+     * Appends a duration in microseconds, with nanosecond precision.
+     * @param sb the destination
+     * @param nanos the duration in nanoseconds
+     */
+    private static void appendMicros(@Nonnull final StringBuilder sb, final long nanos) {
+        sb.append(nanos / 1000).append('.');
+        long fraction = nanos % 1000;
+        if (fraction < 100) {
+            sb.append(fraction < 10 ? "00" : "0");
+        }
+        sb.append(fraction);
+    }
+
+    /**
+     * Appends a JSON string.
+     * @param sb the destination
+     * @param value the string
+     */
+    private static void appendString(@Nonnull final StringBuilder sb, @Nonnull final String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                String hex = Integer.toHexString(c);
+                sb.append("\\u");
+                for (int j = hex.length(); j < 4; j++) {
+                    sb.append('0');
+                }
+                sb.append(hex);
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Recorded span.
+     */
+    private static final class Span {
+
+        /**
+         * the name of span.
+         */
+        private final String name;
+
+        /**
+         * the bean, class or dependency concerned.
+         */
+        private final String subject;
+
+        /**
+         * the id of recording thread.
+         */
+        private final long threadId;
+
+        /**
+         * the name of recording thread.
+         */
+        private final String threadName;
+
+        /**
+         * the start of span from the trace origin, in nanoseconds.
+         */
+        private final long start;
+
+        /**
+         * the duration of span, in nanoseconds.
+         */
+        private final long duration;
+
+        /**
+         * Default constructor.
+         * @param name the name of span
+         * @param subject the bean, class or dependency concerned
+         * @param threadId the id of recording thread
+         * @param threadName the name of recording thread
+         * @param start the start of span from the trace origin, in nanoseconds
+         * @param duration the duration of span, in nanoseconds
+         */
+        Span(@Nonnull final String name, @Nullable final String subject, final long threadId,
+                @Nonnull final String threadName, final long start, final long duration) {
+            this.name = name;
+            this.subject = subject;
+            this.threadId = threadId;
+            this.threadName = threadName;
+            this.start = start;
+            this.duration = duration;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter updated concurrently by many threads and rarely read.
+ * <p>Each thread adds to one of several cells chosen by its id, cells are spaced
+ * to not share a cache line, the value is the sum of all cells.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+final class StripedCounter {
+
+    /**
+     * number of array elements between two cells (64 bytes cache line).
+     */
+    private static final int PADDING = 8;
+
+    /**
+     * the cells, spaced by {@link #PADDING}.
+     */
+    private final AtomicLongArray cells;
+
+    /**
+     * mask of cell index, the number of cells is a power of two.
+     */
+    private final int mask;
+
+    /**
+     * Default constructor, one cell per available processor at least.
+     */
+    StripedCounter() {
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * Increments the counter.
+     */
+    public void increment() {
+        add(1L);
+    }
+
+    /**
+     * Adds a value to the counter.
+     * @param value the value to add
+     */
+    public void add(final long value) {
+        cells.addAndGet(((int) Thread.currentThread().getId() & mask) * PADDING, value);
+    }
+
+    /**
+     * Gets the value of counter, not atomic with respect to concurrent updates.
+     * @return Returns the sum of all cells.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Resets the counter to zero.
+     */
+    public void reset() {
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            cells.set(i, 0L);
+        }
+    }
+}
@@ -0,0 +1,799 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * On-disk cache of the reflection results of {@link ExtendAutowiredAnnotationBeanPostProcessor}, so that
+ * a restarted application does not introspect again the same classes.
+ * <p>The cache stores by class name the injected members, the candidate constructors and whether a type is
+ * annotated with {@link ImplementedBy}. Names are written once in a string table, the file is read at once in a
+ * heap buffer and every length is checked against the remaining bytes, so that a corrupted file is ignored. The
+ * file is ignored if its fingerprint differs, the fingerprint covers the classpath (path, size and modification
+ * time of each entry) and the configuration of the post-processor.</p>
+ * <p>Entries read from the file and not used until the next save are dropped, so the file holds the classes used
+ * by the last run only.</p>
+ * @author devacfr<christophefriederich@mac.com>
+ * @since 1.0
+ */
+final class WarmStartCache {
+
+    /**
+     * magic number of cache file.
+     */
+    private static final int MAGIC = 0x494d4243;
+
+    /**
+     * version of file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * charset of strings.
+     */
+    private static final String CHARSET = "UTF-8";
+
+    /**
+     * flag of a method member.
+     */
+    private static final int FLAG_METHOD = 1;
+
+    /**
+     * flag of a required member.
+     */
+    private static final int FLAG_REQUIRED = 2;
+
+    /**
+     * flag of a method member having a property descriptor.
+     */
+    private static final int FLAG_PROPERTY = 4;
+
+    /**
+     * maximum number of files of classpath directories covered by the fingerprint.
+     */
+    static final int MAX_FINGERPRINT_FILES = 10000;
+
+    /**
+     * log instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(WarmStartCache.class);
+
+    /**
+     * the cache file.
+     */
+    private final File file;
+
+    /**
+     * the fingerprint of classpath and configuration.
+     */
+    private final String fingerprint;
+
+    /**
+     * injected members per class name.
+     */
+    private final ConcurrentMap<String, Member[]> members = new ConcurrentHashMap<String, Member[]>();
+
+    /**
+     * parameter types of candidate constructors per class name.
+     */
+    private final ConcurrentMap<String, String[][]> constructors = new ConcurrentHashMap<String, String[][]>();
+
+    /**
+     * indicating whether a type is annotated with {@link ImplementedBy}, per type name.
+     */
+    private final ConcurrentMap<String, Boolean> bindings = new ConcurrentHashMap<String, Boolean>();
+
+    /**
+     * injected members per class name, read from the file and not used yet.
+     */
+    private final ConcurrentMap<String, Member[]> loadedMembers = new ConcurrentHashMap<String, Member[]>();
+
+    /**
+     * parameter types of candidate constructors per class name, read from the file and not used yet.
+     */
+    private final ConcurrentMap<String, String[][]> loadedConstructors =
+            new ConcurrentHashMap<String, String[][]>();
+
+    /**
+     * indicating whether a type is annotated with {@link ImplementedBy}, read from the file and not used yet.
+     */
+    private final ConcurrentMap<String, Boolean> loadedBindings = new ConcurrentHashMap<String, Boolean>();
+
+    /**
+     * indicating whether entries have been added since the load.
+     */
+    private volatile boolean modified = false;
+
+    /**
+     * Default constructor.
+     * @param file the cache file
+     * @param fingerprint the fingerprint of classpath and configuration
+     */
+    private WarmStartCache(@Nonnull final File file, @Nonnull final String fingerprint) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Opens the cache file, starts with an empty cache if the file does not exist,
+     * can not be read or has another fingerprint.
+     * @param file the cache file
+     * @param fingerprint the fingerprint of classpath and configuration
+     * @return Returns the cache.
+     */
+    @Nonnull
+    public static WarmStartCache open(@Nonnull final File file, @Nonnull final String fingerprint) {
+        WarmStartCache cache = new WarmStartCache(file, fingerprint);
+        if (file.isFile()) {
+            try {
+                if (cache.read()) {
+                    LOGGER.info("Loaded injection metadata of " + cache.loadedMembers.size() + " classes from "
+                            + file);
+                } else {
+                    LOGGER.info("Classpath changed, ignoring injection metadata cache " + file);
+                }
+            } catch (IOException ex) {
+                cache.clear();
+                LOGGER.warn("Unable to read injection metadata cache " + file, ex);
+            } catch (RuntimeException ex) {
+                // truncated or corrupted file.
+                cache.clear();
+                LOGGER.warn("Unable to read injection metadata cache " + file, ex);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Computes the fingerprint of the classpath visible from a class loader and of a configuration.
+     * <p>Directories are fingerprinted by the size and modification time of all their files, up to
+     * {@link #MAX_FINGERPRINT_FILES} files.</p>
+     * @param classLoader the class loader
+     * @param configuration the configuration affecting the cached data
+     * @return Returns the fingerprint, or <code>null</code> if the classpath directories hold too many files to be
+     *         fingerprinted at each startup.
+     */
+    @Nullable
+    public static String fingerprint(@Nullable final ClassLoader classLoader, @Nonnull final String configuration) {
+        return fingerprint(classLoader, configuration, MAX_FINGERPRINT_FILES);
+    }
+
+    /**
+     * Computes the fingerprint of the classpath visible from a class loader and of a configuration.
+     * @param classLoader the class loader
+     * @param configuration the configuration affecting the cached data
+     * @param maxFiles the maximum number of files of classpath directories
+     * @return Returns the fingerprint, or <code>null</code> if the classpath directories hold more than
+     *         <code>maxFiles</code> files.
+     */
+    @Nullable
+    static String fingerprint(@Nullable final ClassLoader classLoader, @Nonnull final String configuration,
+                              final int maxFiles) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        update(digest, VERSION + "|" + configuration + "|" + System.getProperty("java.version"));
+        Set<String> roots = new LinkedHashSet<String>();
+        for (String path : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            roots.add(new File(path).getAbsolutePath());
+        }
+        for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+            if (cl instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) cl).getURLs()) {
+                    if (ResourceUtils.URL_PROTOCOL_FILE.equals(url.getProtocol())) {
+                        roots.add(new File(url.getPath()).getAbsolutePath());
+                    } else {
+                        update(digest, url.toString());
+                    }
+                }
+            }
+        }
+        int remainingFiles = maxFiles;
+        for (String root : roots) {
+            remainingFiles = updateFile(digest, new File(root), remainingFiles);
+            if (remainingFiles < 0) {
+                LOGGER.info("Classpath directory " + root + " holds too many files, injection metadata not cached");
+                return null;
+            }
+        }
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+    /**
+     * Adds the path, size and modification time of a classpath entry to the fingerprint.
+     * @param digest the fingerprint digest
+     * @param file the classpath entry
+     * @param remainingFiles the number of files which can still be fingerprinted
+     * @return Returns the number of files which can still be fingerprinted, negative if the limit is exceeded.
+     */
+    private static int updateFile(@Nonnull final MessageDigest digest, @Nonnull final File file,
+                                  final int remainingFiles) {
+        if (!file.isDirectory()) {
+            update(digest, file.getPath() + ":" + file.length() + ":" + file.lastModified());
+            return remainingFiles - 1;
+        }
+        update(digest, file.getPath());
+        int remaining = remainingFiles;
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (int i = 0; i < children.length && remaining >= 0; i++) {
+                remaining = updateFile(digest, children[i], remaining);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Adds a string to the fingerprint.
+     * @param digest the fingerprint digest
+     * @param s the string
+     */
+    private static void update(@Nonnull final MessageDigest digest, @Nonnull final String s) {
+        try {
+            digest.update(s.getBytes(CHARSET));
+            digest.update((byte) '|');
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Gets the injected members of a class.
+     * @param className the name of class
+     * @return Returns the injected members, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public Member[] getMembers(@Nonnull final String className) {
+        return get(members, loadedMembers, className);
+    }
+
+    /**
+     * Stores the injected members of a class.
+     * @param className the name of class
+     * @param classMembers the injected members
+     */
+    public void putMembers(@Nonnull final String className, @Nonnull final Member[] classMembers) {
+        members.put(className, classMembers);
+        modified = true;
+    }
+
+    /**
+     * Gets the parameter types of candidate constructors of a class.
+     * @param className the name of class
+     * @return Returns the parameter types of candidate constructors, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public String[][] getConstructors(@Nonnull final String className) {
+        return get(constructors, loadedConstructors, className);
+    }
+
+    /**
+     * Stores the parameter types of candidate constructors of a class.
+     * @param className the name of class
+     * @param parameterTypes the parameter types of each candidate constructor
+     */
+    public void putConstructors(@Nonnull final String className, @Nonnull final String[][] parameterTypes) {
+        constructors.put(className, parameterTypes);
+        modified = true;
+    }
+
+    /**
+     * Indicates whether a type is annotated with {@link ImplementedBy}.
+     * @param typeName the name of type
+     * @return Returns whether the type is annotated, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public Boolean isImplementedBy(@Nonnull final String typeName) {
+        return get(bindings, loadedBindings, typeName);
+    }
+
+    /**
+     * Stores whether a type is annotated with {@link ImplementedBy}.
+     * @param typeName the name of type
+     * @param implementedBy <code>true</code> if the type is annotated
+     */
+    public void putImplementedBy(@Nonnull final String typeName, final boolean implementedBy) {
+        if (bindings.put(typeName, implementedBy) == null) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Gets an entry, keeps it at the next save if it has been read from the file.
+     * @param entries the entries used since the load
+     * @param loadedEntries the entries read from the file and not used yet
+     * @param key the name of class
+     * @return Returns the entry, or <code>null</code> if unknown.
+     */
+    @Nullable
+    private static <T> T get(@Nonnull final ConcurrentMap<String, T> entries,
+                             @Nonnull final ConcurrentMap<String, T> loadedEntries, @Nonnull final String key) {
+        T value = entries.get(key);
+        if (value == null) {
+            value = loadedEntries.remove(key);
+            if (value != null) {
+                T previous = entries.putIfAbsent(key, value);
+                if (previous != null) {
+                    value = previous;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Writes the cache file if entries have been added or entries read from the file have not been used, the file is
+     * replaced atomically when possible.
+     * @throws IOException if an I/O error occurs
+     */
+    public void save() throws IOException {
+        if (!modified && loadedMembers.isEmpty() && loadedConstructors.isEmpty() && loadedBindings.isEmpty()) {
+            return;
+        }
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Unable to create directory " + dir);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            write(out);
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            // the target can not be replaced on some platforms.
+            if (!file.delete() || !tmp.renameTo(file)) {
+                tmp.delete();
+                throw new IOException("Unable to replace " + file);
+            }
+        }
+        loadedMembers.clear();
+        loadedConstructors.clear();
+        loadedBindings.clear();
+        modified = false;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    private void clear() {
+        members.clear();
+        constructors.clear();
+        bindings.clear();
+        loadedMembers.clear();
+        loadedConstructors.clear();
+        loadedBindings.clear();
+    }
+
+    /**
+     * Writes the cache.
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    private void write(@Nonnull final DataOutputStream out) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+        Map<String, Member[]> membersSnapshot = new LinkedHashMap<String, Member[]>(members);
+        Map<String, String[][]> constructorsSnapshot = new LinkedHashMap<String, String[][]>(constructors);
+        Map<String, Boolean> bindingsSnapshot = new LinkedHashMap<String, Boolean>(bindings);
+        for (Map.Entry<String, Member[]> entry : membersSnapshot.entrySet()) {
+            intern(strings, entry.getKey());
+            for (Member member : entry.getValue()) {
+                intern(strings, member.declaringClass);
+                intern(strings, member.name);
+                for (String type : member.parameterTypes) {
+                    intern(strings, type);
+                }
+            }
+        }
+        for (Map.Entry<String, String[][]> entry : constructorsSnapshot.entrySet()) {
+            intern(strings, entry.getKey());
+            for (String[] parameterTypes : entry.getValue()) {
+                for (String type : parameterTypes) {
+                    intern(strings, type);
+                }
+            }
+        }
+        for (String type : bindingsSnapshot.keySet()) {
+            intern(strings, type);
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, fingerprint);
+        out.writeInt(strings.size());
+        for (String s : strings.keySet()) {
+            writeString(out, s);
+        }
+        out.writeInt(membersSnapshot.size());
+        for (Map.Entry<String, Member[]> entry : membersSnapshot.entrySet()) {
+            out.writeInt(strings.get(entry.getKey()));
+            out.writeInt(entry.getValue().length);
+            for (Member member : entry.getValue()) {
+                out.writeByte(member.flags());
+                out.writeInt(strings.get(member.declaringClass));
+                out.writeInt(strings.get(member.name));
+                if (member.method) {
+                    writeNames(out, strings, member.parameterTypes);
+                }
+            }
+        }
+        out.writeInt(constructorsSnapshot.size());
+        for (Map.Entry<String, String[][]> entry : constructorsSnapshot.entrySet()) {
+            out.writeInt(strings.get(entry.getKey()));
+            out.writeInt(entry.getValue().length);
+            for (String[] parameterTypes : entry.getValue()) {
+                writeNames(out, strings, parameterTypes);
+            }
+        }
+        out.writeInt(bindingsSnapshot.size());
+        for (Map.Entry<String, Boolean> entry : bindingsSnapshot.entrySet()) {
+            out.writeInt(strings.get(entry.getKey()));
+            out.writeBoolean(entry.getValue());
+        }
+    }
+
+    /**
+     * Reads the cache file.
+     * <p>The file is read in a heap buffer rather than mapped, a mapped file can not be replaced on some platforms
+     * until the mapping is garbage collected.</p>
+     * @return Returns <code>false</code> if the file has another format or fingerprint.
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean read() throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Too large file " + file);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Truncated file " + file);
+                }
+            }
+            buffer.flip();
+            return read(buffer);
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Truncated file " + file);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads the cache.
+     * @param buffer the content of cache file
+     * @return Returns <code>false</code> if the file has another format or fingerprint.
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean read(@Nonnull final ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !fingerprint.equals(readString(buffer))) {
+            return false;
+        }
+        String[] strings = new String[readLength(buffer, 4)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(buffer);
+        }
+        int count = readLength(buffer, 8);
+        for (int i = 0; i < count; i++) {
+            String className = readName(buffer, strings);
+            Member[] classMembers = new Member[readLength(buffer, 9)];
+            for (int j = 0; j < classMembers.length; j++) {
+                int flags = buffer.get();
+                String declaringClass = readName(buffer, strings);
+                String name = readName(buffer, strings);
+                if ((flags & FLAG_METHOD) != 0) {
+                    classMembers[j] =
+                            new Member(declaringClass, name, readNames(buffer, strings), (flags & FLAG_REQUIRED) != 0,
+                                    (flags & FLAG_PROPERTY) != 0);
+                } else {
+                    classMembers[j] = new Member(declaringClass, name, (flags & FLAG_REQUIRED) != 0);
+                }
+            }
+            loadedMembers.put(className, classMembers);
+        }
+        count = readLength(buffer, 8);
+        for (int i = 0; i < count; i++) {
+            String className = readName(buffer, strings);
+            String[][] parameterTypes = new String[readLength(buffer, 4)][];
+            for (int j = 0; j < parameterTypes.length; j++) {
+                parameterTypes[j] = readNames(buffer, strings);
+            }
+            loadedConstructors.put(className, parameterTypes);
+        }
+        count = readLength(buffer, 5);
+        for (int i = 0; i < count; i++) {
+            loadedBindings.put(readName(buffer, strings), buffer.get() != 0);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a string in the string table.
+     * @param strings the string table
+     * @param s the string
+     */
+    private static void intern(@Nonnull final Map<String, Integer> strings, @Nonnull final String s) {
+        if (!strings.containsKey(s)) {
+            strings.put(s, strings.size());
+        }
+    }
+
+    /**
+     * Writes a string.
+     * @param out the output
+     * @param s the string
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeString(@Nonnull final DataOutputStream out, @Nonnull final String s)
+            throws IOException {
+        byte[] bytes = s.getBytes(CHARSET);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string.
+     * @param buffer the input
+     * @return Returns the string.
+     * @throws IOException if an I/O error occurs
+     */
+    @Nonnull
+    private static String readString(@Nonnull final ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[readLength(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, CHARSET);
+    }
+
+    /**
+     * Reads the length of an array and checks it against the remaining bytes.
+     * @param buffer the input
+     * @param elementSize the minimum size in bytes of an element
+     * @return Returns the length.
+     * @throws IOException if the length is negative or exceeds the remaining bytes
+     */
+    private static int readLength(@Nonnull final ByteBuffer buffer, final int elementSize) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || (long) length * elementSize > buffer.remaining()) {
+            throw new IOException("Corrupted length " + length + " at position " + (buffer.position() - 4));
+        }
+        return length;
+    }
+
+    /**
+     * Reads a name written as index in the string table.
+     * @param buffer the input
+     * @param strings the string table
+     * @return Returns the name.
+     * @throws IOException if the index is out of the string table
+     */
+    @Nonnull
+    private static String readName(@Nonnull final ByteBuffer buffer, @Nonnull final String[] strings)
+            throws IOException {
+        int index = buffer.getInt();
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Corrupted string index " + index + " at position " + (buffer.position() - 4));
+        }
+        return strings[index];
+    }
+
+    /**
+     * Writes an array of names as indexes in the string table.
+     * @param out the output
+     * @param strings the string table
+     * @param names the names
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeNames(@Nonnull final DataOutputStream out, @Nonnull final Map<String, Integer> strings,
+                                   @Nonnull final String[] names) throws IOException {
+        out.writeInt(names.length);
+        for (String name : names) {
+            out.writeInt(strings.get(name));
+        }
+    }
+
+    /**
+     * Reads an array of names written as indexes in the string table.
+     * @param buffer the input
+     * @param strings the string table
+     * @return Returns the names.
+     * @throws IOException if the file is corrupted
+     */
+    @Nonnull
+    private static String[] readNames(@Nonnull final ByteBuffer buffer, @Nonnull final String[] strings)
+            throws IOException {
+        String[] names = new String[readLength(buffer, 4)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = readName(buffer, strings);
+        }
+        return names;
+    }
+
+    /**
+     * Gets the names of classes.
+     * @param classes the classes
+     * @return Returns the names of classes, as returned by {@link Class#getName()}.
+     */
+    @Nonnull
+    public static String[] getNames(@Nonnull final Class<?>[] classes) {
+        String[] names = new String[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            names[i] = classes[i].getName();
+        }
+        return names;
+    }
+
+    /**
+     * Injected field or method.
+     */
+    static final class Member {
+
+        /**
+         * the name of declaring class.
+         */
+        private final String declaringClass;
+
+        /**
+         * the name of field or method.
+         */
+        private final String name;
+
+        /**
+         * the parameter types of method, empty for a field.
+         */
+        private final String[] parameterTypes;
+
+        /**
+         * indicating whether the member is a method.
+         */
+        private final boolean method;
+
+        /**
+         * indicating whether the dependency is required.
+         */
+        private final boolean required;
+
+        /**
+         * indicating whether the method has a property descriptor.
+         */
+        private final boolean property;
+
+        /**
+         * Creates a field member.
+         * @param declaringClass the name of declaring class
+         * @param name the name of field
+         * @param required indicating whether the dependency is required
+         */
+        Member(@Nonnull final String declaringClass, @Nonnull final String name, final boolean required) {
+            this(declaringClass, name, new String[0], required, false, false);
+        }
+
+        /**
+         * Creates a method member.
+         * @param declaringClass the name of declaring class
+         * @param name the name of method
+         * @param parameterTypes the parameter types of method
+         * @param required indicating whether the dependency is required
+         * @param property indicating whether the method has a property descriptor
+         */
+        Member(@Nonnull final String declaringClass, @Nonnull final String name,
+                @Nonnull final String[] parameterTypes, final boolean required, final boolean property) {
+            this(declaringClass, name, parameterTypes, required, true, property);
+        }
+
+        /**
+         * Default constructor.
+         * @param declaringClass the name of declaring class
+         * @param name the name of member
+         * @param parameterTypes the parameter types of method, empty for a field
+         * @param required indicating whether the dependency is required
+         * @param method indicating whether the member is a method
+         * @param property indicating whether the method has a property descriptor
+         */
+        private Member(final String declaringClass, final String name, final String[] parameterTypes,
+                final boolean required, final boolean method, final boolean property) {
+            this.declaringClass = declaringClass;
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+            this.required = required;
+            this.method = method;
+            this.property = property;
+        }
+
+        /**
+         * @return Returns the name of declaring class.
+         */
+        public String getDeclaringClass() {
+            return declaringClass;
+        }
+
+        /**
+         * @return Returns the name of field or method.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Returns the parameter types of method, empty for a field.
+         */
+        public String[] getParameterTypes() {
+            return parameterTypes;
+        }
+
+        /**
+         * @return Returns <code>true</code> if the member is a method.
+         */
+        public boolean isMethod() {
+            return method;
+        }
+
+        /**
+         * @return Returns <code>true</code> if the dependency is required.
+         */
+        public boolean isRequired() {
+            return required;
+        }
+
+        /**
+         * @return Returns <code>true</code> if the method has a property descriptor.
+         */
+        public boolean isProperty() {
+            return property;
+        }
+
+        /**
+         * @return Returns the flags of member in cache file.
+         */
+        private int flags() {
+            return (method ? FLAG_METHOD : 0) | (required ? FLAG_REQUIRED : 0) | (property ? FLAG_PROPERTY : 0);
+        }
+    }
+}
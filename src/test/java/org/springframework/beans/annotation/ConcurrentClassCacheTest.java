@@ -0,0 +1,143 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.CachedIntrospectionResults;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+public class ConcurrentClassCacheTest {
+
+    @Test
+    public void createOnceTest() {
+        CountingCache cache = new CountingCache();
+        Assert.assertEquals(String.class.getName(), cache.get(String.class));
+        Assert.assertEquals(String.class.getName(), cache.get(String.class));
+        Assert.assertEquals(1, cache.creations.get());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void evictOldestTest() {
+        CountingCache cache = new CountingCache();
+        cache.setMaximumSize(2);
+        cache.get(String.class);
+        cache.get(Integer.class);
+        cache.get(Long.class);
+        Assert.assertEquals(2, cache.size());
+        cache.get(Long.class);
+        Assert.assertEquals(3, cache.creations.get());
+        cache.get(String.class);
+        Assert.assertEquals(4, cache.creations.get());
+    }
+
+    @Test
+    public void unloadClassLoaderTest() throws Exception {
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+        WeakReference<ClassLoader> loader = processInIsolatedClassLoader(processor);
+        for (int i = 0; i < 20 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Assert.assertNull("class loader retained by post-processor caches", loader.get());
+    }
+
+    private WeakReference<ClassLoader> processInIsolatedClassLoader(
+            final ExtendAutowiredAnnotationBeanPostProcessor processor) throws Exception {
+        ClassLoader loader = new IsolatingClassLoader(getClass().getClassLoader(), Unloadable.class.getName());
+        Class<?> clazz = loader.loadClass(Unloadable.class.getName());
+        Assert.assertNotSame(Unloadable.class, clazz);
+        processor.postProcessMergedBeanDefinition(new RootBeanDefinition(clazz), clazz, "unloadable");
+        processor.determineCandidateConstructors(clazz, "unloadable");
+        // as done by IntrospectorCleanupListener on undeploy
+        CachedIntrospectionResults.clearClassLoader(loader);
+        Introspector.flushCaches();
+        return new WeakReference<ClassLoader>(loader);
+    }
+
+    private static final class CountingCache extends ConcurrentClassCache<String> {
+
+        private final AtomicInteger creations = new AtomicInteger();
+
+        @Override
+        protected String create(final Class<?> key) {
+            creations.incrementAndGet();
+            return key.getName();
+        }
+    }
+
+    /**
+     * Class loader defining itself one class, as a redeployed application would.
+     */
+    private static final class IsolatingClassLoader extends ClassLoader {
+
+        private final String isolatedClassName;
+
+        IsolatingClassLoader(final ClassLoader parent, final String isolatedClassName) {
+            super(parent);
+            this.isolatedClassName = isolatedClassName;
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(final String name, final boolean resolve)
+                throws ClassNotFoundException {
+            if (!isolatedClassName.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+                try {
+                    byte[] bytes = FileCopyUtils.copyToByteArray(in);
+                    clazz = defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException ex) {
+                    throw new ClassNotFoundException(name, ex);
+                }
+            }
+            return clazz;
+        }
+    }
+
+    public static class Unloadable {
+
+        @Inject
+        private Object field;
+
+        /**
+         * @param field the field to set
+         */
+        @Inject
+        public void setField(final Object field) {
+            this.field = field;
+        }
+    }
+}
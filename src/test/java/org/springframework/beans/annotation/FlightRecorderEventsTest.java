@@ -0,0 +1,120 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+public class FlightRecorderEventsTest {
+
+    private static final String[] EVENT_NAMES = {"org.springframework.beans.annotation.MetadataBuild",
+            "org.springframework.beans.annotation.DependencyResolution",
+            "org.springframework.beans.annotation.DefaultRegistration",
+            "org.springframework.beans.annotation.Injection" };
+
+    @Test
+    public void recordedEventsTest() throws Exception {
+        Assume.assumeNotNull(InjectionEvents.createFlightRecorderEvents());
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        processor.setBeanFactory(beanFactory);
+        beanFactory.addBeanPostProcessor(processor);
+
+        File file = File.createTempFile("injection", ".jfr");
+        Recording recording = new Recording();
+        try {
+            for (String name : EVENT_NAMES) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            Consumer consumer = new Consumer();
+            processor.processInjection(consumer);
+            Assert.assertNotNull(consumer.field);
+            recording.stop();
+            recording.dump(file.toPath());
+        } finally {
+            recording.close();
+        }
+
+        Set<String> names = new HashSet<String>();
+        RecordedEvent resolution = null;
+        RecordedEvent registration = null;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file.toPath())) {
+            String name = event.getEventType().getName();
+            names.add(name);
+            if (name.endsWith("DependencyResolution")) {
+                resolution = event;
+            } else if (name.endsWith("DefaultRegistration")) {
+                registration = event;
+            }
+        }
+        file.delete();
+        for (String name : EVENT_NAMES) {
+            Assert.assertTrue(name, names.contains(name));
+        }
+        Assert.assertEquals("resolved", resolution.getString("outcome"));
+        Assert.assertEquals(Interface.class.getName(), resolution.getClass("dependencyType").getName());
+        Assert.assertEquals(DefaultImplementation.class.getName(),
+            registration.getClass("implementation").getName());
+    }
+
+    @Test
+    public void disabledTest() {
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+        processor.setFlightRecorderEnabled(false);
+        Consumer consumer = new Consumer();
+        processor.processInjection(consumer);
+        Assert.assertNotNull(consumer.field);
+        InjectionEvents events = InjectionEvents.createFlightRecorderEvents();
+        Assume.assumeNotNull(events);
+        // no recording: no event is begun.
+        Assert.assertNull(events.beginResolution());
+        Assert.assertNull(events.beginInjection());
+    }
+
+    public static class Consumer {
+
+        @Inject
+        private Interface field;
+    }
+
+    @ImplementedBy(DefaultImplementation.class)
+    public interface Interface {
+
+    }
+
+    public static class DefaultImplementation implements Interface {
+
+    }
+}
@@ -0,0 +1,281 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+public class GeneratedInjectorTest {
+
+    private ExtendAutowiredAnnotationBeanPostProcessor processor;
+
+    private File directory;
+
+    @Before
+    public void createProcessor() throws Exception {
+        processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setStatisticsEnabled(true);
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+        directory = File.createTempFile("injectors", "");
+        Assert.assertTrue(directory.delete() && directory.mkdir());
+    }
+
+    @After
+    public void destroyProcessor() {
+        processor.destroy();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void generatedInjectorTest() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        generateInjector(compiler, GeneratedConsumer.class);
+
+        Class<?> beanClass = loadWithInjector(GeneratedConsumer.class);
+        Assert.assertFalse(processor.hasGeneratedInjector(beanClass));
+        processor.setUseGeneratedInjectors(true);
+        Assert.assertTrue(processor.hasGeneratedInjector(beanClass));
+        Object bean = BeanUtils.instantiateClass(beanClass);
+        processor.processInjection(bean);
+        Assert.assertNotNull(getField(bean, "field"));
+        Assert.assertSame(getField(bean, "field"), getField(bean, "method"));
+        Assert.assertEquals(1, getField(bean, "count"));
+        // the field and the method are injected by the generated injector, not through reflection.
+        Assert.assertEquals(2, processor.getStatistics().getGeneratedInjectionCount());
+    }
+
+    @Test
+    public void reflectiveMemberTest() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        generateInjector(compiler, MixedConsumer.class);
+
+        Class<?> beanClass = loadWithInjector(MixedConsumer.class);
+        processor.setUseGeneratedInjectors(true);
+        Assert.assertTrue(processor.hasGeneratedInjector(beanClass));
+        Object bean = BeanUtils.instantiateClass(beanClass);
+        processor.processInjection(bean);
+        Assert.assertNotNull(getField(bean, "field"));
+        Assert.assertNotNull(getField(bean, "method"));
+        // only the method is injected by the generated injector, the private field through reflection.
+        Assert.assertEquals(1, processor.getStatistics().getGeneratedInjectionCount());
+    }
+
+    @Test
+    public void staleInjectorTest() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        ImplementedByInjectorGenerator generator = new ImplementedByInjectorGenerator(directory,
+                getClass().getClassLoader());
+        // injector generated before the field "added" was declared: its members still resolve.
+        String source = generator.generateSource(GeneratedConsumer.class).replace("GeneratedConsumer",
+            "StaleConsumer");
+        File file = new File(directory, "org/springframework/beans/annotation/GeneratedInjectorTest$"
+                + "StaleConsumer" + GeneratedInjector.SUFFIX + ".java");
+        Assert.assertTrue(file.getParentFile().mkdirs());
+        FileCopyUtils.copy(source, new FileWriter(file));
+        compile(compiler, file);
+
+        Class<?> beanClass = loadWithInjector(StaleConsumer.class);
+        processor.setUseGeneratedInjectors(true);
+        Assert.assertFalse(processor.hasGeneratedInjector(beanClass));
+        Object bean = BeanUtils.instantiateClass(beanClass);
+        processor.processInjection(bean);
+        Assert.assertNotNull(getField(bean, "field"));
+        Assert.assertNotNull(getField(bean, "added"));
+        Assert.assertEquals(0, processor.getStatistics().getGeneratedInjectionCount());
+    }
+
+    @Test
+    public void fingerprintTest() {
+        Assert.assertEquals(processor.fingerprintInjectionPoints(GeneratedConsumer.class),
+            new ExtendAutowiredAnnotationBeanPostProcessor().fingerprintInjectionPoints(GeneratedConsumer.class));
+        Assert.assertFalse(processor.fingerprintInjectionPoints(GeneratedConsumer.class).equals(
+            processor.fingerprintInjectionPoints(StaleConsumer.class)));
+    }
+
+    @Test
+    public void inaccessibleMemberTest() {
+        ImplementedByInjectorGenerator generator =
+                new ImplementedByInjectorGenerator(new File("unused"), getClass().getClassLoader());
+        Assert.assertNotNull(generator.generateSource(GeneratedConsumer.class));
+        Assert.assertNull(generator.generateSource(PrivateConsumer.class));
+        Assert.assertTrue(generator.generateSource(MixedConsumer.class).contains("reflectiveField("));
+        Assert.assertNull(generator.generateSource(NoInjection.class));
+        Assert.assertNull(generator.generateSource(Service.class));
+    }
+
+    private void generateInjector(final JavaCompiler compiler, final Class<?> clazz) throws Exception {
+        ImplementedByInjectorGenerator generator = new ImplementedByInjectorGenerator(directory,
+                getClass().getClassLoader());
+        Assert.assertTrue(generator.generate(clazz));
+        File source = new File(directory, clazz.getName().replace('.', '/') + GeneratedInjector.SUFFIX + ".java");
+        Assert.assertTrue(source.isFile());
+        compile(compiler, source);
+    }
+
+    private void compile(final JavaCompiler compiler, final File source) throws Exception {
+        String classpath = getLocation(GeneratedInjectorTest.class) + File.pathSeparator
+                + getLocation(GeneratedInjector.class) + File.pathSeparator + getLocation(Inject.class)
+                + File.pathSeparator + getLocation(Nonnull.class);
+        Assert.assertEquals(0, compiler.run(null, null, null, Arrays.asList("-nowarn", "-classpath", classpath, "-d",
+            directory.getPath(), source.getPath()).toArray(new String[0])));
+    }
+
+    /**
+     * Loads a bean class along with its injector compiled in the temporary directory, in the same class loader so
+     * that the injector can access the package private members of class. The enclosing test class is loaded again
+     * too, as nested classes must agree with it.
+     */
+    private Class<?> loadWithInjector(final Class<?> clazz) throws Exception {
+        Set<String> names = new HashSet<String>(Arrays.asList(GeneratedInjectorTest.class.getName(), clazz.getName(),
+            clazz.getName() + GeneratedInjector.SUFFIX));
+        ClassLoader classLoader = new ChildFirstClassLoader(new URL[] {directory.toURI().toURL(),
+                getLocation(GeneratedInjectorTest.class).toURI().toURL() }, getClass().getClassLoader(), names);
+        return classLoader.loadClass(clazz.getName());
+    }
+
+    private static Object getField(final Object bean, final String name) {
+        Field field = ReflectionUtils.findField(bean.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, bean);
+    }
+
+    private static File getLocation(final Class<?> clazz) throws Exception {
+        return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static class ChildFirstClassLoader extends URLClassLoader {
+
+        private final Set<String> names;
+
+        public ChildFirstClassLoader(final URL[] urls, final ClassLoader parent, final Set<String> names) {
+            super(urls, parent);
+            this.names = names;
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(final String name, final boolean resolve)
+                throws ClassNotFoundException {
+            if (!names.contains(name)) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                clazz = findClass(name);
+            }
+            if (resolve) {
+                resolveClass(clazz);
+            }
+            return clazz;
+        }
+    }
+
+    public static class GeneratedConsumer {
+
+        @Inject
+        Service field;
+
+        Service method;
+
+        int count;
+
+        @Inject
+        void setMethod(final Service method) {
+            this.method = method;
+            this.count++;
+        }
+    }
+
+    public static class StaleConsumer {
+
+        @Inject
+        Service field;
+
+        Service method;
+
+        int count;
+
+        @Inject
+        Service added;
+
+        @Inject
+        void setMethod(final Service method) {
+            this.method = method;
+            this.count++;
+        }
+    }
+
+    public static class MixedConsumer {
+
+        @Inject
+        private Service field;
+
+        private Service method;
+
+        @Inject
+        void setMethod(final Service method) {
+            this.method = method;
+        }
+    }
+
+    public static class PrivateConsumer {
+
+        @Inject
+        private Service field;
+    }
+
+    public static class NoInjection {
+
+        Service field;
+    }
+
+    @ImplementedBy(DefaultService.class)
+    public interface Service {
+
+    }
+
+    public static class DefaultService implements Service {
+
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration()
+public class ImplementedByConcurrentRegistrationTest {
+
+    private static final int THREADS = 16;
+
+    private static final int BEANS_PER_THREAD = 50;
+
+    @Inject
+    private DefaultListableBeanFactory beanFactory;
+
+    @Test
+    public void registerOnceTest() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<Interface>>> results = new ArrayList<Future<List<Interface>>>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(new Callable<List<Interface>>() {
+
+                    @Override
+                    public List<Interface> call() throws Exception {
+                        start.await();
+                        List<Interface> instances = new ArrayList<Interface>(BEANS_PER_THREAD);
+                        for (int j = 0; j < BEANS_PER_THREAD; j++) {
+                            instances.add(beanFactory.getBean("consumer", Consumer.class).getField());
+                        }
+                        return instances;
+                    }
+                }));
+            }
+            start.countDown();
+            List<Interface> instances = new ArrayList<Interface>(THREADS * BEANS_PER_THREAD);
+            for (Future<List<Interface>> result : results) {
+                instances.addAll(result.get());
+            }
+            Interface expected = beanFactory.getBean(Interface.class);
+            for (Interface instance : instances) {
+                Assert.assertSame(expected, instance);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, beanFactory.getBeanNamesForType(Interface.class).length);
+    }
+
+    @Test
+    public void registerDefaultDependencyOnceTest() throws Exception {
+        final AtomicInteger registrations = new AtomicInteger();
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory() {
+
+            @Override
+            public void registerBeanDefinition(final String beanName, final BeanDefinition beanDefinition) {
+                registrations.incrementAndGet();
+                super.registerBeanDefinition(beanName, beanDefinition);
+            }
+        };
+        final ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(factory);
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+                        start.await();
+                        return processor.registerDefaultDependency(Interface.class);
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, registrations.get());
+        Assert.assertTrue(factory.containsBeanDefinition(DefaultImplementation.class.getCanonicalName()));
+    }
+
+    @Test
+    public void registerSharedImplementationOnceTest() throws Exception {
+        final AtomicInteger registrations = new AtomicInteger();
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory() {
+
+            @Override
+            public void registerBeanDefinition(final String beanName, final BeanDefinition beanDefinition) {
+                registrations.incrementAndGet();
+                try {
+                    // widens the window of a concurrent registration.
+                    Thread.sleep(20);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                super.registerBeanDefinition(beanName, beanDefinition);
+            }
+        };
+        final ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(factory);
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                final Class<?> declaredClass = (i % 2 == 0 ? FirstInterface.class : SecondInterface.class);
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+                        start.await();
+                        return processor.registerDefaultDependency(declaredClass);
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, registrations.get());
+        Assert.assertSame(factory.getBean(FirstInterface.class), factory.getBean(SecondInterface.class));
+    }
+
+    @Test(timeout = 10000)
+    public void registerWhileCreatingSingletonTest() throws Exception {
+        final CountDownLatch registering = new CountDownLatch(1);
+        final DefaultListableBeanFactory factory = new DefaultListableBeanFactory() {
+
+            @Override
+            public void registerBeanDefinition(final String beanName, final BeanDefinition beanDefinition) {
+                if (beanName.equals(LockedImplementation.class.getCanonicalName())) {
+                    registering.countDown();
+                    try {
+                        // lets the creation of the singleton start during the registration.
+                        Thread.sleep(200);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.registerBeanDefinition(beanName, beanDefinition);
+            }
+        };
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(factory);
+        factory.addBeanPostProcessor(processor);
+        RootBeanDefinition prototype = new RootBeanDefinition(LockedPrototypeConsumer.class);
+        prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        factory.registerBeanDefinition("prototypeConsumer", prototype);
+        factory.registerBeanDefinition("singletonConsumer", new RootBeanDefinition(LockedSingletonConsumer.class));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<LockedPrototypeConsumer> prototypeResult = executor.submit(new Callable<LockedPrototypeConsumer>() {
+
+                @Override
+                public LockedPrototypeConsumer call() throws Exception {
+                    return factory.getBean("prototypeConsumer", LockedPrototypeConsumer.class);
+                }
+            });
+            registering.await();
+            // holds the singleton mutex of the factory while the default is registered by the other thread.
+            Future<LockedSingletonConsumer> singletonResult = executor.submit(new Callable<LockedSingletonConsumer>() {
+
+                @Override
+                public LockedSingletonConsumer call() throws Exception {
+                    return factory.getBean("singletonConsumer", LockedSingletonConsumer.class);
+                }
+            });
+            Assert.assertSame(prototypeResult.get().field, singletonResult.get().field);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @ImplementedBy(DefaultImplementation.class)
+    public interface Interface {
+
+    }
+
+    public static class DefaultImplementation implements Interface {
+
+    }
+
+    @ImplementedBy(SharedImplementation.class)
+    public interface FirstInterface {
+
+    }
+
+    @ImplementedBy(SharedImplementation.class)
+    public interface SecondInterface {
+
+    }
+
+    public static class SharedImplementation implements FirstInterface, SecondInterface {
+
+    }
+
+    @ImplementedBy(LockedImplementation.class)
+    public interface LockedInterface {
+
+    }
+
+    public static class LockedImplementation implements LockedInterface {
+
+    }
+
+    public static class LockedPrototypeConsumer {
+
+        @Inject
+        LockedInterface field;
+    }
+
+    public static class LockedSingletonConsumer {
+
+        @Inject
+        LockedInterface field;
+    }
+
+    public static class Consumer {
+
+        @Inject
+        private Interface field;
+
+        /**
+         * @return the field
+         */
+        public Interface getField() {
+            return field;
+        }
+    }
+}
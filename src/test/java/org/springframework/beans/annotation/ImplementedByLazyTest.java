@@ -0,0 +1,119 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration()
+public class ImplementedByLazyTest {
+
+    @Inject
+    private LazyInterface field;
+
+    @Test
+    public void createOnFirstCallTest() {
+        Assert.assertTrue(AopUtils.isJdkDynamicProxy(field));
+        Assert.assertEquals(0, LazyImplementation.INSTANCES.get());
+        Assert.assertEquals("lazy", field.getValue());
+        Assert.assertEquals("lazy", field.getValue());
+        Assert.assertEquals(1, LazyImplementation.INSTANCES.get());
+    }
+
+    @Test
+    public void lazyDefaultsTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setLazyDefaults(true);
+        processor.setBeanFactory(beanFactory);
+        beanFactory.addBeanPostProcessor(processor);
+        beanFactory.registerBeanDefinition("consumer", new RootBeanDefinition(Consumer.class));
+        Consumer consumer = beanFactory.getBean(Consumer.class);
+        Assert.assertTrue(AopUtils.isJdkDynamicProxy(consumer.eager));
+        Assert.assertFalse(beanFactory.containsSingleton(EagerImplementation.class.getCanonicalName()));
+        Assert.assertEquals("eager", consumer.eager.getValue());
+        Assert.assertTrue(beanFactory.containsSingleton(EagerImplementation.class.getCanonicalName()));
+        // a class can not be proxied, its default is created eagerly.
+        Assert.assertEquals(AbstractTypeImpl.class, consumer.type.getClass());
+    }
+
+    @ImplementedBy(value = LazyImplementation.class, lazy = true)
+    public interface LazyInterface {
+
+        String getValue();
+    }
+
+    public static class LazyImplementation implements LazyInterface {
+
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public LazyImplementation() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public String getValue() {
+            return "lazy";
+        }
+    }
+
+    @ImplementedBy(EagerImplementation.class)
+    public interface EagerInterface {
+
+        String getValue();
+    }
+
+    public static class EagerImplementation implements EagerInterface {
+
+        @Override
+        public String getValue() {
+            return "eager";
+        }
+    }
+
+    @ImplementedBy(AbstractTypeImpl.class)
+    public abstract static class AbstractType {
+
+    }
+
+    public static class AbstractTypeImpl extends AbstractType {
+
+    }
+
+    public static class Consumer {
+
+        @Inject
+        private EagerInterface eager;
+
+        @Inject
+        private AbstractType type;
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration()
+public class ImplementedByScopeTest {
+
+    @Inject
+    private PrototypeService prototype1;
+
+    @Inject
+    private PrototypeService prototype2;
+
+    @Inject
+    private ThreadService threadService;
+
+    @Inject
+    private PooledService pooledService;
+
+    @Test
+    public void prototypeTest() {
+        Assert.assertNotSame(prototype1, prototype2);
+    }
+
+    @Test
+    public void threadTest() throws Exception {
+        final Object current = threadService.getToken();
+        Assert.assertSame(current, threadService.getToken());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Object other = executor.submit(new Callable<Object>() {
+
+                @Override
+                public Object call() {
+                    return threadService.getToken();
+                }
+            }).get();
+            Assert.assertNotSame(current, other);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void pooledTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+                        boolean exclusive = true;
+                        for (int j = 0; j < 50; j++) {
+                            exclusive &= pooledService.use();
+                        }
+                        return exclusive;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue("instance used concurrently", result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(PooledImplementation.INSTANCES.get() <= 2);
+    }
+
+    @Test(timeout = 5000)
+    public void poolPermitReleasedOnErrorTest() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RootBeanDefinition definition = new RootBeanDefinition(Object.class);
+        definition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("target", definition);
+        final AtomicBoolean failing = new AtomicBoolean(true);
+        BoundedPoolTargetSource targetSource = new BoundedPoolTargetSource() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected Object newPrototypeInstance() {
+                if (failing.getAndSet(false)) {
+                    throw new Error("creation failed");
+                }
+                return super.newPrototypeInstance();
+            }
+        };
+        targetSource.setMaxSize(1);
+        targetSource.setTargetBeanName("target");
+        targetSource.setBeanFactory(beanFactory);
+        try {
+            targetSource.getTarget();
+            Assert.fail();
+        } catch (Error ex) {
+            Assert.assertEquals("creation failed", ex.getMessage());
+        }
+        // the single permit is available again, otherwise the pool blocks forever.
+        Assert.assertNotNull(targetSource.getTarget());
+        Assert.assertEquals(1, targetSource.getActiveCount());
+    }
+
+    @ImplementedBy(value = PrototypeImplementation.class, scope = ImplementedByScope.PROTOTYPE)
+    public interface PrototypeService {
+
+    }
+
+    public static class PrototypeImplementation implements PrototypeService {
+
+    }
+
+    @ImplementedBy(value = ThreadImplementation.class, scope = ImplementedByScope.THREAD)
+    public interface ThreadService {
+
+        Object getToken();
+    }
+
+    public static class ThreadImplementation implements ThreadService {
+
+        private final Object token = new Object();
+
+        @Override
+        public Object getToken() {
+            return token;
+        }
+    }
+
+    @ImplementedBy(value = PooledImplementation.class, scope = ImplementedByScope.POOLED, maxPoolSize = 2)
+    public interface PooledService {
+
+        boolean use() throws InterruptedException;
+    }
+
+    public static class PooledImplementation implements PooledService {
+
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        private final AtomicBoolean inUse = new AtomicBoolean();
+
+        public PooledImplementation() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public boolean use() throws InterruptedException {
+            if (!inUse.compareAndSet(false, true)) {
+                return false;
+            }
+            Thread.sleep(1);
+            inUse.set(false);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import javax.inject.Inject;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration()
+public class ImplementedByWithBindingIndexTest {
+
+    @Inject
+    private Interface field;
+
+    @Test
+    public void injectTest() {
+        Assert.assertNotNull(field);
+    }
+
+    @Test
+    public void indexTest() {
+        ImplementedByIndex index = ImplementedByIndex.load(getClass().getClassLoader());
+        Assert.assertTrue(index.contains(Interface.class));
+        Assert.assertEquals(DefaultImplementation.class.getName(), index.getImplementation(Interface.class));
+        Assert.assertFalse(index.contains(DefaultImplementation.class));
+    }
+
+    @Test
+    public void bindingFromIndexTest() throws Exception {
+        ImplementedByIndex index = ImplementedByIndex.load(getClass().getClassLoader());
+        ImplementedBy binding = index.getBinding(Interface.class);
+        Assert.assertEquals(Interface.class.getAnnotation(ImplementedBy.class), binding);
+        Assert.assertEquals(binding, Interface.class.getAnnotation(ImplementedBy.class));
+        Assert.assertEquals(Interface.class.getAnnotation(ImplementedBy.class).hashCode(), binding.hashCode());
+        ImplementedBy pooled = index.getBinding(PooledInterface.class);
+        Assert.assertEquals(PooledInterface.class.getAnnotation(ImplementedBy.class), pooled);
+        Assert.assertEquals(ImplementedByScope.POOLED, pooled.scope());
+        Assert.assertEquals(2, pooled.maxPoolSize());
+        Assert.assertTrue(pooled.lazy());
+        Assert.assertNull(index.getBinding(DefaultImplementation.class));
+    }
+
+    @Test
+    public void staleEntriesRemovedTest() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        File directory = createTempDirectory();
+        File classes = new File(directory, "classes");
+        Assert.assertTrue(classes.mkdir());
+        File first = writeSource(directory, "First", "@ImplementedBy(First.Impl.class) public interface First {"
+                + " class Impl implements First {} }");
+        File second = writeSource(directory, "Second", "@ImplementedBy(Second.Impl.class) public interface Second {"
+                + " class Impl implements Second {} }");
+        compile(compiler, classes, first, second);
+        Assert.assertEquals(2, readIndex(classes).size());
+
+        // incremental build: First deleted, Second not compiled again.
+        Assert.assertTrue(new File(classes, "index/First.class").delete());
+        Assert.assertTrue(new File(classes, "index/First$Impl.class").delete());
+        File third = writeSource(directory, "Third", "public class Third {}");
+        compile(compiler, classes, third);
+        Properties index = readIndex(classes);
+        Assert.assertEquals(1, index.size());
+        Assert.assertEquals("index.Second$Impl", index.getProperty("index.Second"));
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void dollarInTypeNameKeptTest() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        File directory = createTempDirectory();
+        File classes = new File(directory, "classes");
+        Assert.assertTrue(classes.mkdir());
+        File dollar = writeSource(directory, "Dollar$Type", "@ImplementedBy(Dollar$Type.Impl.class)"
+                + " public interface Dollar$Type { class Impl implements Dollar$Type {} }");
+        File outer = writeSource(directory, "Outer", "public class Outer {"
+                + " @ImplementedBy(Nested$Type.Impl.class) public interface Nested$Type {"
+                + " class Impl implements Nested$Type {} } }");
+        compile(compiler, classes, dollar, outer);
+        Assert.assertEquals(2, readIndex(classes).size());
+
+        // incremental build: the annotated types are not compiled again, their bindings are kept.
+        File third = writeSource(directory, "Third", "public class Third {}");
+        compile(compiler, classes, third);
+        Properties index = readIndex(classes);
+        Assert.assertEquals(2, index.size());
+        Assert.assertEquals("index.Dollar$Type$Impl", index.getProperty("index.Dollar$Type"));
+        Assert.assertEquals("index.Outer$Nested$Type$Impl", index.getProperty("index.Outer$Nested$Type"));
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    private static File createTempDirectory() throws Exception {
+        File directory = File.createTempFile("index", "");
+        Assert.assertTrue(directory.delete() && directory.mkdir());
+        return directory;
+    }
+
+    private static File writeSource(final File directory, final String name, final String body) throws Exception {
+        File file = new File(directory, name + ".java");
+        FileCopyUtils.copy("package index; import " + ImplementedBy.class.getName() + "; " + body, new FileWriter(
+            file));
+        return file;
+    }
+
+    private static void compile(final JavaCompiler compiler, final File classes, final File... sources)
+            throws Exception {
+        String classpath = classes + File.pathSeparator
+                + new File(ImplementedBy.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<String> args = new ArrayList<String>(Arrays.asList("-nowarn", "-classpath", classpath, "-processor",
+            ImplementedByProcessor.class.getName(), "-d", classes.getPath()));
+        for (File source : sources) {
+            args.add(source.getPath());
+        }
+        Assert.assertEquals(0, compiler.run(null, null, null, args.toArray(new String[args.size()])));
+    }
+
+    private static Properties readIndex(final File classes) throws Exception {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(new File(classes, ImplementedByIndex.INDEX_LOCATION));
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        return properties;
+    }
+
+    @ImplementedBy(DefaultImplementation.class)
+    public interface Interface {
+
+    }
+
+    public static class DefaultImplementation implements Interface {
+
+    }
+
+    @ImplementedBy(value = PooledImplementation.class, lazy = true, scope = ImplementedByScope.POOLED,
+            maxPoolSize = 2)
+    public interface PooledInterface {
+
+    }
+
+    public static class PooledImplementation implements PooledInterface {
+
+    }
+}
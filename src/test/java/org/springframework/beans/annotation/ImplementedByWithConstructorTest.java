@@ -20,6 +20,7 @@ import javax.inject.Inject;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -35,11 +36,23 @@ public class ImplementedByWithConstructorTest {
     @Inject
     private ClassA clazz;
 
+    @Inject
+    private BeanFactory beanFactory;
+
     @Test
     public void injectTest() {
         Assert.assertNotNull(clazz.getInstance());
     }
 
+    @Test
+    public void injectPrototypeTest() {
+        ClassA first = beanFactory.getBean("prototype", ClassA.class);
+        ClassA second = beanFactory.getBean("prototype", ClassA.class);
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(clazz.getInstance(), first.getInstance());
+        Assert.assertSame(first.getInstance(), second.getInstance());
+    }
+
     @ImplementedBy(DefaultImplementation.class)
     public interface Interface {
 
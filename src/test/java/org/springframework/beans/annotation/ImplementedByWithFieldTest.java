@@ -15,11 +15,33 @@
  */
 package org.springframework.beans.annotation;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.inject.Inject;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.TypeConverter;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.annotation.QualifierAnnotationAutowireCandidateResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
@@ -34,11 +56,251 @@ public class ImplementedByWithFieldTest {
     @Inject
     private Interface field;
 
+    @Inject
+    private BeanFactory beanFactory;
+
     @Test
     public void injectTest() {
         Assert.assertNotNull(field);
     }
 
+    @Test
+    public void noResolutionFallbackTest() {
+        ExtendAutowiredAnnotationBeanPostProcessor processor =
+                beanFactory.getBean(AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME,
+                    ExtendAutowiredAnnotationBeanPostProcessor.class);
+        Assert.assertEquals(0, processor.getResolutionFallbackCount());
+    }
+
+    @Test
+    public void destroyedSingletonNotInjectedTest() {
+        DefaultListableBeanFactory factory = createBeanFactory();
+        RootBeanDefinition definition = new RootBeanDefinition(Consumer.class);
+        definition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        factory.registerBeanDefinition("prototype", definition);
+        factory.registerBeanDefinition("unrelated", new RootBeanDefinition(Object.class));
+        Interface first = factory.getBean("prototype", Consumer.class).field;
+        Assert.assertSame(first, factory.getBean("prototype", Consumer.class).field);
+        // destruction of an unrelated bean keeps the instance.
+        factory.destroySingleton("unrelated");
+        Assert.assertSame(first, factory.getBean("prototype", Consumer.class).field);
+        factory.destroySingleton(DefaultImplementation.class.getCanonicalName());
+        Interface second = factory.getBean("prototype", Consumer.class).field;
+        Assert.assertNotNull(second);
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(second, factory.getBean(Interface.class));
+    }
+
+    @Test
+    public void factoryBeanSingletonTest() {
+        DefaultListableBeanFactory factory = createBeanFactory();
+        RootBeanDefinition definition = new RootBeanDefinition(Consumer.class);
+        definition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        factory.registerBeanDefinition("prototype", definition);
+        factory.registerBeanDefinition("factory", new RootBeanDefinition(InterfaceFactoryBean.class));
+        Interface first = factory.getBean("prototype", Consumer.class).field;
+        Assert.assertTrue(first instanceof OtherImplementation);
+        Assert.assertSame(first, factory.getBean("prototype", Consumer.class).field);
+        factory.destroySingleton("factory");
+        Interface second = factory.getBean("prototype", Consumer.class).field;
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(second, factory.getBean(Interface.class));
+    }
+
+    @Test
+    public void conversionServiceSetAfterInjectionTest() {
+        DefaultListableBeanFactory factory = createBeanFactory();
+        factory.setAutowireCandidateResolver(new QualifierAnnotationAutowireCandidateResolver());
+        RootBeanDefinition definition = new RootBeanDefinition(Consumer.class);
+        definition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        factory.registerBeanDefinition("prototype", definition);
+        factory.registerBeanDefinition("tokenConsumer", new RootBeanDefinition(TokenConsumer.class));
+        Assert.assertNotNull(factory.getBean("prototype", Consumer.class).field);
+
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(new TokenConverter());
+        factory.setConversionService(conversionService);
+        factory.freezeConfiguration();
+        Assert.assertEquals("converted value", factory.getBean("tokenConsumer", TokenConsumer.class).token.value);
+    }
+
+    private static DefaultListableBeanFactory createBeanFactory() {
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(factory);
+        factory.addBeanPostProcessor(processor);
+        return factory;
+    }
+
+    @Test
+    public void concurrentFirstInjectionTest() throws Exception {
+        final DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(factory);
+        factory.addBeanPostProcessor(processor);
+        RootBeanDefinition definition = new RootBeanDefinition(Consumer.class);
+        definition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        factory.registerBeanDefinition("consumer", definition);
+        int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Interface>> results = new ArrayList<Future<Interface>>(threads);
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<Interface>() {
+
+                    @Override
+                    public Interface call() throws Exception {
+                        start.await();
+                        return factory.getBean("consumer", Consumer.class).field;
+                    }
+                }));
+            }
+            start.countDown();
+            Interface expected = results.get(0).get();
+            Assert.assertNotNull(expected);
+            for (Future<Interface> result : results) {
+                Assert.assertSame(expected, result.get());
+            }
+            Assert.assertSame(expected, factory.getBean(Interface.class));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void concurrentResolutionReusedTest() throws Exception {
+        final CountDownLatch resolved = new CountDownLatch(1);
+        final CountDownLatch published = new CountDownLatch(1);
+        final AtomicInteger dependentRegistrations = new AtomicInteger();
+        final DefaultListableBeanFactory factory = new DefaultListableBeanFactory() {
+
+            @Override
+            public Object getBean(final String name) {
+                Object bean = super.getBean(name);
+                if (bean instanceof Interface && resolved.getCount() > 0) {
+                    resolved.countDown();
+                    try {
+                        // resolved by the first thread, published by the other one meanwhile.
+                        published.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return bean;
+            }
+
+            @Override
+            public void registerDependentBean(final String beanName, final String dependentBeanName) {
+                if ("consumer".equals(dependentBeanName)) {
+                    dependentRegistrations.incrementAndGet();
+                }
+                super.registerDependentBean(beanName, dependentBeanName);
+            }
+        };
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(factory);
+        factory.addBeanPostProcessor(processor);
+        RootBeanDefinition definition = new RootBeanDefinition(Consumer.class);
+        definition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        factory.registerBeanDefinition("consumer", definition);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Callable<Interface> injection = new Callable<Interface>() {
+
+                @Override
+                public Interface call() throws Exception {
+                    return factory.getBean("consumer", Consumer.class).field;
+                }
+            };
+            Future<Interface> first = executor.submit(injection);
+            resolved.await();
+            Interface expected = executor.submit(injection).get();
+            published.countDown();
+            Assert.assertSame(expected, first.get());
+            // the first thread reuses the published value rather than registering its own.
+            Assert.assertEquals(1, dependentRegistrations.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void resolutionInvalidatedByRegistrationTest() {
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(factory);
+        factory.addBeanPostProcessor(processor);
+        factory.registerBeanDefinition("consumer", new RootBeanDefinition(Consumer.class));
+        factory.registerBeanDefinition("otherConsumer", new RootBeanDefinition(OtherConsumer.class));
+        Assert.assertTrue(factory.getBean("consumer", Consumer.class).field instanceof DefaultImplementation);
+        RootBeanDefinition primary = new RootBeanDefinition(OtherImplementation.class);
+        primary.setPrimary(true);
+        factory.registerBeanDefinition("primary", primary);
+        Assert.assertTrue(factory.getBean("otherConsumer", OtherConsumer.class).field instanceof OtherImplementation);
+    }
+
+    @Test
+    public void sharedResolutionTest() {
+        final AtomicInteger resolutions = new AtomicInteger();
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory() {
+
+            @Override
+            public Object resolveDependency(final DependencyDescriptor descriptor, final String beanName,
+                                            final Set<String> autowiredBeanNames, final TypeConverter typeConverter) {
+                resolutions.incrementAndGet();
+                return super.resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
+            }
+        };
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(factory);
+        factory.addBeanPostProcessor(processor);
+        factory.registerBeanDefinition("implementation", new RootBeanDefinition(DefaultImplementation.class));
+        factory.registerBeanDefinition("consumer", new RootBeanDefinition(Consumer.class));
+        factory.registerBeanDefinition("otherConsumer", new RootBeanDefinition(OtherConsumer.class));
+        factory.freezeConfiguration();
+        Interface expected = factory.getBean("consumer", Consumer.class).field;
+        Assert.assertEquals(1, resolutions.get());
+        Assert.assertSame(expected, factory.getBean("otherConsumer", OtherConsumer.class).field);
+        // resolved once, shared by the other consumer.
+        Assert.assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void sharedResolutionInvalidatedByOverrideTest() {
+        DefaultListableBeanFactory factory = createBeanFactory();
+        factory.registerBeanDefinition("implementation", new RootBeanDefinition(OtherImplementation.class));
+        factory.registerBeanDefinition("consumer", new RootBeanDefinition(Consumer.class));
+        factory.registerBeanDefinition("otherConsumer", new RootBeanDefinition(OtherConsumer.class));
+        factory.freezeConfiguration();
+        Assert.assertTrue(factory.getBean("consumer", Consumer.class).field instanceof OtherImplementation);
+        // same name, same number of definitions, no longer a candidate.
+        factory.registerBeanDefinition("implementation", new RootBeanDefinition(Object.class));
+        Assert.assertTrue(factory.getBean("otherConsumer", OtherConsumer.class).field instanceof DefaultImplementation);
+    }
+
+    @Test
+    public void sharedResolutionInvalidatedBySingletonTest() {
+        DefaultListableBeanFactory factory = createBeanFactory();
+        factory.registerBeanDefinition("implementation", new RootBeanDefinition(DefaultImplementation.class));
+        factory.registerBeanDefinition("consumer", new RootBeanDefinition(Consumer.class));
+        factory.registerBeanDefinition("otherConsumer", new RootBeanDefinition(OtherConsumer.class));
+        factory.freezeConfiguration();
+        Assert.assertTrue(factory.getBean("consumer", Consumer.class).field instanceof DefaultImplementation);
+        // the definition replaced by a singleton, same number of definitions.
+        factory.removeBeanDefinition("implementation");
+        Interface singleton = new OtherImplementation();
+        factory.registerSingleton("singleton", singleton);
+        factory.registerBeanDefinition("unrelated", new RootBeanDefinition(Object.class));
+        Assert.assertSame(singleton, factory.getBean("otherConsumer", OtherConsumer.class).field);
+    }
+
+    public static class Consumer {
+
+        @Inject
+        private Interface field;
+    }
+
     @ImplementedBy(DefaultImplementation.class)
     public interface Interface {
 
@@ -47,4 +309,55 @@ public class ImplementedByWithFieldTest {
     public static class DefaultImplementation implements Interface {
 
     }
+
+    public static class OtherConsumer {
+
+        @Inject
+        private Interface field;
+    }
+
+    public static class OtherImplementation implements Interface {
+
+    }
+
+    public static class Token {
+
+        private final String value;
+
+        public Token(final String value) {
+            this.value = value;
+        }
+    }
+
+    public static class TokenConverter implements Converter<String, Token> {
+
+        @Override
+        public Token convert(final String source) {
+            return new Token("converted " + source);
+        }
+    }
+
+    public static class TokenConsumer {
+
+        @Value("value")
+        private Token token;
+    }
+
+    public static class InterfaceFactoryBean implements FactoryBean<Interface> {
+
+        @Override
+        public Interface getObject() {
+            return new OtherImplementation();
+        }
+
+        @Override
+        public Class<?> getObjectType() {
+            return Interface.class;
+        }
+
+        @Override
+        public boolean isSingleton() {
+            return true;
+        }
+    }
 }
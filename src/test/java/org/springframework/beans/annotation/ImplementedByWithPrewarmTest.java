@@ -0,0 +1,87 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration()
+public class ImplementedByWithPrewarmTest {
+
+    @Inject
+    private FieldConsumer fieldConsumer;
+
+    @Test
+    public void injectTest() {
+        Assert.assertNotNull(fieldConsumer.field);
+    }
+
+    @Test
+    public void prewarmTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("fieldConsumer", new RootBeanDefinition(FieldConsumer.class));
+        beanFactory.registerBeanDefinition("otherConsumer", new RootBeanDefinition(FieldConsumer.class));
+        beanFactory.registerBeanDefinition("constructorConsumer", new RootBeanDefinition(ConstructorConsumer.class));
+        RootBeanDefinition unknown = new RootBeanDefinition();
+        unknown.setBeanClassName("org.springframework.beans.annotation.UnknownClass");
+        beanFactory.registerBeanDefinition("unknown", unknown);
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setPrewarm(true);
+        processor.setPrewarmThreads(2);
+        processor.setBeanFactory(beanFactory);
+        beanFactory.addBeanPostProcessor(processor);
+        Assert.assertEquals(2, processor.getMetadataCacheSize());
+        beanFactory.removeBeanDefinition("unknown");
+        Assert.assertNotNull(beanFactory.getBean("constructorConsumer", ConstructorConsumer.class).field);
+    }
+
+    @ImplementedBy(DefaultImplementation.class)
+    public interface Interface {
+
+    }
+
+    public static class DefaultImplementation implements Interface {
+
+    }
+
+    public static class FieldConsumer {
+
+        @Inject
+        private Interface field;
+    }
+
+    public static class ConstructorConsumer {
+
+        private final Interface field;
+
+        @Inject
+        public ConstructorConsumer(final Interface field) {
+            this.field = field;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.lang.management.ManagementFactory;
+
+import javax.inject.Inject;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration()
+public class ImplementedByWithStatisticsTest {
+
+    @Inject
+    private Interface field;
+
+    @Inject
+    private ApplicationContext applicationContext;
+
+    @Test
+    public void statisticsTest() {
+        Assert.assertNotNull(field);
+        InjectionStatisticsMBean statistics = getProcessor().getStatistics();
+        Assert.assertNotNull(statistics);
+        Assert.assertEquals(1, statistics.getRegisteredDefaultCount());
+        Assert.assertTrue(statistics.getMetadataCacheMisses() > 0);
+        Assert.assertTrue(statistics.getMetadataCacheSize() > 0);
+        Assert.assertTrue(statistics.getDependencyResolutionCount() >= 2);
+        Assert.assertTrue(statistics.getInjectionCount() > 0);
+        Assert.assertTrue(statistics.getImplementedByLookupCount() >= statistics.getImplementedByReflectionCount());
+        Assert.assertTrue(statistics.getImplementedByReflectionCount() > 0);
+    }
+
+    @Test
+    public void mbeanTest() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name =
+                new ObjectName("org.springframework.beans.annotation:type=InjectionStatistics,identity="
+                        + Integer.toHexString(System.identityHashCode(getProcessor())));
+        Assert.assertTrue(server.isRegistered(name));
+        Assert.assertEquals(1L, server.getAttribute(name, "RegisteredDefaultCount"));
+    }
+
+    @Test
+    public void enabledAfterBeanFactoryTest() throws Exception {
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+        processor.setStatisticsEnabled(true);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name =
+                new ObjectName("org.springframework.beans.annotation:type=InjectionStatistics,identity="
+                        + Integer.toHexString(System.identityHashCode(processor)));
+        Assert.assertTrue(server.isRegistered(name));
+        processor.setStatisticsEnabled(false);
+        Assert.assertFalse(server.isRegistered(name));
+        processor.setStatisticsEnabled(true);
+        Assert.assertTrue(server.isRegistered(name));
+        processor.destroy();
+        Assert.assertFalse(server.isRegistered(name));
+    }
+
+    private ExtendAutowiredAnnotationBeanPostProcessor getProcessor() {
+        return applicationContext.getBean(AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME,
+            ExtendAutowiredAnnotationBeanPostProcessor.class);
+    }
+
+    @ImplementedBy(DefaultImplementation.class)
+    public interface Interface {
+
+    }
+
+    public static class DefaultImplementation implements Interface {
+
+    }
+}
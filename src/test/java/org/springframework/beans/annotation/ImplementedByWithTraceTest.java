@@ -0,0 +1,93 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration()
+public class ImplementedByWithTraceTest {
+
+    private static final File TRACE_FILE = new File("target/ImplementedByWithTraceTest.json");
+
+    @Inject
+    private Interface field;
+
+    /**
+     * Deletes the trace of a previous run, before the context is loaded by the first test.
+     */
+    @BeforeClass
+    public static void deleteTraceFile() {
+        TRACE_FILE.delete();
+        Assert.assertFalse(TRACE_FILE.exists());
+    }
+
+    @Test
+    public void traceWrittenOnRefreshTest() throws Exception {
+        Assert.assertNotNull(field);
+        File file = TRACE_FILE;
+        Assert.assertTrue(file.isFile());
+        String trace = FileCopyUtils.copyToString(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        Assert.assertTrue(trace.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        Assert.assertTrue(trace.contains("\"name\":\"thread_name\""));
+        Assert.assertTrue(trace.contains("\"name\":\"" + InjectionTrace.DEFAULT_REGISTRATION + "\""));
+        Assert.assertTrue(trace.contains("\"name\":\"" + InjectionTrace.INJECTION + "\""));
+        Assert.assertTrue(trace.contains("\"subject\":\"" + Interface.class.getName() + " for "));
+    }
+
+    @Test
+    public void jsonEscapeTest() throws Exception {
+        InjectionTrace trace = new InjectionTrace();
+        trace.record(InjectionTrace.RESOLUTION, "a \"quoted\\name\"\n", System.nanoTime());
+        StringWriter writer = new StringWriter();
+        trace.write(writer);
+        Assert.assertEquals(1, trace.size());
+        Assert.assertTrue(writer.toString().contains("\"subject\":\"a \\\"quoted\\\\name\\\"\\u000a\""));
+        Assert.assertTrue(writer.toString().endsWith("]}\n"));
+    }
+
+    public static class Consumer {
+
+        @Inject
+        private Interface field;
+    }
+
+    @ImplementedBy(DefaultImplementation.class)
+    public interface Interface {
+
+    }
+
+    public static class DefaultImplementation implements Interface {
+
+    }
+}
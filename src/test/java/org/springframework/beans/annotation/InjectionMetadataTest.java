@@ -0,0 +1,169 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.InjectionMetadata;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+public class InjectionMetadataTest {
+
+    private ExtendAutowiredAnnotationBeanPostProcessor processor;
+
+    @Before
+    public void createProcessor() {
+        processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+    }
+
+    @Test
+    public void sharedEmptyMetadataTest() {
+        InjectionMetadata empty = processor.getInjectionMetadata(NoInjection.class);
+        Assert.assertSame(empty, processor.getInjectionMetadata(ArrayList.class));
+        Assert.assertSame(empty, processor.getInjectionMetadata(HashMap.class));
+        Assert.assertNotSame(empty, processor.getInjectionMetadata(Consumer.class));
+    }
+
+    @Test
+    public void emptyMetadataRetainedOnceTest() {
+        Class<?>[] classes = {NoInjection.class, ArrayList.class, LinkedList.class, HashMap.class, String.class,
+                Integer.class, Long.class, Thread.class, StringBuilder.class, Object.class };
+        List<InjectionMetadata> distinct = new ArrayList<InjectionMetadata>();
+        for (Class<?> clazz : classes) {
+            InjectionMetadata metadata = processor.getInjectionMetadata(clazz);
+            boolean found = false;
+            for (InjectionMetadata existing : distinct) {
+                found |= existing == metadata;
+            }
+            if (!found) {
+                distinct.add(metadata);
+            }
+        }
+        // classes without injected element retain no metadata of their own.
+        Assert.assertEquals(classes.length, processor.getMetadataCacheSize());
+        Assert.assertEquals(1, distinct.size());
+    }
+
+    @Test
+    public void superclassElementsFirstTest() throws Exception {
+        Consumer consumer = new Consumer();
+        processor.processInjection(consumer);
+        Assert.assertNotNull(consumer.field);
+        Assert.assertSame(consumer.field, consumer.parentField);
+        Assert.assertTrue(consumer.parentInjectedFirst);
+    }
+
+    @Test
+    public void sharedSuperclassTest() {
+        Consumer consumer = new Consumer();
+        OverridingConsumer overriding = new OverridingConsumer();
+        processor.processInjection(consumer);
+        processor.processInjection(overriding);
+        Assert.assertNotNull(consumer.field);
+        Assert.assertNotNull(overriding.parentField);
+        // the setter overridden without annotation is not injected.
+        Assert.assertNull(overriding.overridden);
+        Assert.assertNotSame(processor.getInjectionMetadata(Consumer.class),
+            processor.getInjectionMetadata(OverridingConsumer.class));
+    }
+
+    @Test
+    public void customRequiredParameterTest() {
+        processor.setAutowiredAnnotationType(OptionalInject.class);
+        processor.setRequiredParameterName("optional");
+        processor.setRequiredParameterValue(false);
+        OptionalConsumer bean = new OptionalConsumer();
+        processor.processInjection(bean);
+        Assert.assertNotNull(bean.field);
+        Assert.assertNull(bean.missing);
+    }
+
+    public static class NoInjection {
+
+        private Object field;
+    }
+
+    public static class Parent {
+
+        @Inject
+        protected Interface parentField;
+    }
+
+    public static class Consumer extends Parent {
+
+        private Interface field;
+
+        private boolean parentInjectedFirst;
+
+        @Inject
+        public void setField(final Interface field) {
+            this.parentInjectedFirst = parentField != null;
+            this.field = field;
+        }
+    }
+
+    public static class OverridingConsumer extends Consumer {
+
+        private Interface overridden;
+
+        @Override
+        public void setField(final Interface field) {
+            this.overridden = field;
+        }
+    }
+
+    @Target(ElementType.FIELD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface OptionalInject {
+
+        boolean optional() default false;
+    }
+
+    public static class OptionalConsumer {
+
+        @OptionalInject
+        private Interface field;
+
+        @OptionalInject(optional = true)
+        private Runnable missing;
+    }
+
+    @ImplementedBy(DefaultImplementation.class)
+    public interface Interface {
+
+    }
+
+    public static class DefaultImplementation implements Interface {
+
+    }
+}
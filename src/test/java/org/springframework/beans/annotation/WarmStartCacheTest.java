@@ -0,0 +1,188 @@
+/**
+ * Copyright 2014 devacfr<christophefriederich@mac.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import javax.inject.Inject;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * @author devacfr<christophefriederich@mac.com>
+ *
+ */
+public class WarmStartCacheTest {
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("implementedby", ".cache");
+        file.delete();
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void saveAndOpenTest() throws IOException {
+        WarmStartCache cache = WarmStartCache.open(file, "fingerprint");
+        cache.putMembers("a.Consumer", new WarmStartCache.Member[] {new WarmStartCache.Member("a.Base", "field", true),
+                new WarmStartCache.Member("a.Consumer", "setField", new String[] {"a.Interface" }, false, true) });
+        cache.putConstructors("a.Consumer", new String[][] {{"a.Interface", "int" } });
+        cache.putImplementedBy("a.Interface", true);
+        cache.putImplementedBy("java.lang.String", false);
+        cache.save();
+
+        WarmStartCache reloaded = WarmStartCache.open(file, "fingerprint");
+        WarmStartCache.Member[] members = reloaded.getMembers("a.Consumer");
+        Assert.assertEquals(2, members.length);
+        Assert.assertEquals("a.Base", members[0].getDeclaringClass());
+        Assert.assertFalse(members[0].isMethod());
+        Assert.assertTrue(members[0].isRequired());
+        Assert.assertEquals("setField", members[1].getName());
+        Assert.assertArrayEquals(new String[] {"a.Interface" }, members[1].getParameterTypes());
+        Assert.assertTrue(members[1].isProperty());
+        Assert.assertFalse(members[1].isRequired());
+        Assert.assertArrayEquals(new String[] {"a.Interface", "int" }, reloaded.getConstructors("a.Consumer")[0]);
+        Assert.assertEquals(Boolean.TRUE, reloaded.isImplementedBy("a.Interface"));
+        Assert.assertEquals(Boolean.FALSE, reloaded.isImplementedBy("java.lang.String"));
+
+        Assert.assertNull(WarmStartCache.open(file, "other").getMembers("a.Consumer"));
+    }
+
+    @Test
+    public void unusedEntriesDroppedTest() throws IOException {
+        WarmStartCache cache = WarmStartCache.open(file, "fingerprint");
+        cache.putImplementedBy("a.Used", true);
+        cache.putImplementedBy("a.Unused", true);
+        cache.save();
+
+        WarmStartCache reloaded = WarmStartCache.open(file, "fingerprint");
+        Assert.assertEquals(Boolean.TRUE, reloaded.isImplementedBy("a.Used"));
+        reloaded.save();
+        reloaded = WarmStartCache.open(file, "fingerprint");
+        Assert.assertEquals(Boolean.TRUE, reloaded.isImplementedBy("a.Used"));
+        Assert.assertNull(reloaded.isImplementedBy("a.Unused"));
+    }
+
+    @Test
+    public void corruptedLengthTest() throws IOException {
+        WarmStartCache cache = WarmStartCache.open(file, "fingerprint");
+        cache.putImplementedBy("a.Interface", true);
+        cache.save();
+        // string table length, after the magic number, the version and the fingerprint.
+        int position = 4 + 4 + 4 + "fingerprint".length();
+        for (int length : new int[] {Integer.MAX_VALUE, -1 }) {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.seek(position);
+                raf.writeInt(length);
+            } finally {
+                raf.close();
+            }
+            Assert.assertNull(WarmStartCache.open(file, "fingerprint").isImplementedBy("a.Interface"));
+        }
+    }
+
+    @Test
+    public void fingerprintLimitTest() throws IOException {
+        File directory = new File(file.getPath() + ".classes");
+        Assert.assertTrue(directory.mkdirs());
+        try {
+            for (int i = 0; i < 3; i++) {
+                Assert.assertTrue(new File(directory, "Class" + i + ".class").createNewFile());
+            }
+            ClassLoader classLoader = new URLClassLoader(new URL[] {directory.toURI().toURL() }, null);
+            Assert.assertNotNull(WarmStartCache.fingerprint(classLoader, "", Integer.MAX_VALUE));
+            Assert.assertNull(WarmStartCache.fingerprint(classLoader, "", 2));
+        } finally {
+            for (File child : directory.listFiles()) {
+                child.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void restoreMetadataTest() {
+        ExtendAutowiredAnnotationBeanPostProcessor processor = createProcessor();
+        processor.processInjection(new Consumer());
+        processor.determineCandidateConstructors(Consumer.class, "consumer");
+        processor.destroy();
+        Assert.assertTrue(file.isFile());
+
+        processor = createProcessor();
+        WarmStartCache cache = processor.getWarmStartCache();
+        WarmStartCache.Member[] members = cache.getMembers(Consumer.class.getName());
+        Assert.assertEquals(2, members.length);
+        Assert.assertNotNull(cache.getConstructors(Consumer.class.getName()));
+        Assert.assertEquals(Boolean.TRUE, cache.isImplementedBy(Interface.class.getName()));
+        // the metadata is built from the cache only, not from the class.
+        cache.putMembers(Consumer.class.getName(), new WarmStartCache.Member[] {members[0] });
+        Consumer consumer = new Consumer();
+        processor.processInjection(consumer);
+        Assert.assertNotNull(consumer.first);
+        Assert.assertNull(consumer.second);
+    }
+
+    @Test
+    public void staleMetadataTest() {
+        ExtendAutowiredAnnotationBeanPostProcessor processor = createProcessor();
+        processor.getWarmStartCache().putMembers(Consumer.class.getName(),
+            new WarmStartCache.Member[] {new WarmStartCache.Member(Consumer.class.getName(), "removed", true) });
+        Consumer consumer = new Consumer();
+        processor.processInjection(consumer);
+        Assert.assertNotNull(consumer.first);
+        Assert.assertNotNull(consumer.second);
+    }
+
+    private ExtendAutowiredAnnotationBeanPostProcessor createProcessor() {
+        ExtendAutowiredAnnotationBeanPostProcessor processor = new ExtendAutowiredAnnotationBeanPostProcessor();
+        processor.setWarmStartCacheFile(file);
+        processor.setBeanFactory(new DefaultListableBeanFactory());
+        return processor;
+    }
+
+    @ImplementedBy(DefaultImplementation.class)
+    public interface Interface {
+
+    }
+
+    public static class DefaultImplementation implements Interface {
+
+    }
+
+    public static class Consumer {
+
+        @Inject
+        private Interface first;
+
+        @Inject
+        private Interface second;
+    }
+}